@@ -1,6 +1,18 @@
 CREATE SCHEMA IF NOT EXISTS "public";
 
-CREATE TYPE notification_type AS ENUM ('reminder', 'confirmation', 'cancellation');
+-- Lets the plain integer admin id take part in the GiST exclusion constraint on availability_slots
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Ids of the high-volume tables come from these sequences rather than SERIAL defaults. Hibernate's
+-- pooled-lo optimizer reserves a block of 50 ids per call, so INCREMENT BY must match allocationSize.
+CREATE SEQUENCE "public"."availability_slots_seq" INCREMENT BY 50;
+CREATE SEQUENCE "public"."appointments_seq" INCREMENT BY 50;
+CREATE SEQUENCE "public"."calendar_events_seq" INCREMENT BY 50;
+CREATE SEQUENCE "public"."calendar_tokens_seq" INCREMENT BY 50;
+CREATE SEQUENCE "public"."notifications_seq" INCREMENT BY 50;
+CREATE SEQUENCE "public"."outbox_events_seq" INCREMENT BY 50;
+CREATE SEQUENCE "public"."payments_seq" INCREMENT BY 50;
+CREATE SEQUENCE "public"."reviews_seq" INCREMENT BY 50;
 
 CREATE TABLE "public"."app_users" (
                                   "app_user_id" SERIAL PRIMARY KEY,
@@ -26,20 +38,21 @@ CREATE TABLE "public"."services" (
 );
 
 CREATE TABLE "public"."appointments" (
-                                         "appointment_id" SERIAL PRIMARY KEY,
+                                         "appointment_id" integer PRIMARY KEY,
                                          "app_user_id" integer NOT NULL,
                                          "service_id" integer,
                                          "status_id" integer NOT NULL,
                                          "location" varchar NOT NULL,
                                          "scheduled_at" date NOT NULL,
                                          "description" text,
+                                         "updated_at" timestamp,
                                          CONSTRAINT fk_appointments_user FOREIGN KEY ("app_user_id") REFERENCES "public"."app_users"("app_user_id"),
                                          CONSTRAINT fk_appointments_status FOREIGN KEY ("status_id") REFERENCES "public"."appointment_statuses"("status_id"),
                                          CONSTRAINT fk_appointments_service FOREIGN KEY ("service_id") REFERENCES "public"."services"("service_id")
 );
 
 CREATE TABLE "public"."payments" (
-                                     "payment_id" SERIAL PRIMARY KEY,
+                                     "payment_id" integer PRIMARY KEY,
                                      "appointment_id" integer NOT NULL,
                                      "app_user_id" integer NOT NULL,
                                      "amount" decimal NOT NULL,
@@ -50,29 +63,33 @@ CREATE TABLE "public"."payments" (
 );
 
 CREATE TABLE "public"."availability_slots" (
-                                               "slot_id" SERIAL PRIMARY KEY,
+                                               "slot_id" integer PRIMARY KEY,
                                                "app_user_id" integer NOT NULL,
                                                "service_id" integer NOT NULL,
                                                "start_time" timestamp NOT NULL,
                                                "end_time" timestamp NOT NULL,
                                                "is_booked" boolean NOT NULL,
                                                CONSTRAINT fk_slots_user FOREIGN KEY ("app_user_id") REFERENCES "public"."app_users"("app_user_id"),
-                                               CONSTRAINT fk_slots_service FOREIGN KEY ("service_id") REFERENCES "public"."services"("service_id")
+                                               CONSTRAINT fk_slots_service FOREIGN KEY ("service_id") REFERENCES "public"."services"("service_id"),
+                                               -- One admin's slots may not overlap; default '[)' bounds let back-to-back slots through
+                                               CONSTRAINT availability_slots_no_overlap EXCLUDE USING gist ("app_user_id" WITH =, tsrange("start_time", "end_time") WITH &&)
 );
 
 CREATE TABLE "public"."notifications" (
-                                          "notif_id" SERIAL PRIMARY KEY,
+                                          "notification_id" integer PRIMARY KEY,
                                           "app_user_id" integer NOT NULL,
                                           "appointment_id" integer NOT NULL,
-                                          "type" notification_type NOT NULL,
+                                          "type" varchar NOT NULL,
                                           "message" text NOT NULL,
                                           "sent_at" timestamp NOT NULL,
                                           CONSTRAINT fk_notifications_user FOREIGN KEY ("app_user_id") REFERENCES "public"."app_users"("app_user_id"),
-                                          CONSTRAINT fk_notifications_appointment FOREIGN KEY ("appointment_id") REFERENCES "public"."appointments"("appointment_id")
+                                          CONSTRAINT fk_notifications_appointment FOREIGN KEY ("appointment_id") REFERENCES "public"."appointments"("appointment_id"),
+                                          -- Claims a reminder: a second run on the same day cannot insert it again
+                                          CONSTRAINT uk_notifications_appointment_type_sent_at UNIQUE ("appointment_id", "type", "sent_at")
 );
 
 CREATE TABLE "public"."reviews" (
-                                    "review_id" SERIAL PRIMARY KEY,
+                                    "review_id" integer PRIMARY KEY,
                                     "appointment_id" integer NOT NULL,
                                     "app_user_id" integer NOT NULL,
                                     "rating" integer NOT NULL,
@@ -83,7 +100,7 @@ CREATE TABLE "public"."reviews" (
 );
 
 CREATE TABLE "public"."calendar_tokens" (
-                                            "token_id" SERIAL PRIMARY KEY,
+                                            "token_id" integer PRIMARY KEY,
                                             "app_user_id" integer NOT NULL,
                                             "provider" varchar NOT NULL,
                                             "access_token" text NOT NULL,
@@ -94,7 +111,7 @@ CREATE TABLE "public"."calendar_tokens" (
 );
 
 CREATE TABLE "public"."calendar_events" (
-                                            "calendar_event_id" SERIAL PRIMARY KEY,
+                                            "calendar_event_id" integer PRIMARY KEY,
                                             "appointment_id" integer NOT NULL,
                                             "app_user_id" integer NOT NULL,
                                             "provider" varchar NOT NULL,
@@ -105,6 +122,24 @@ CREATE TABLE "public"."calendar_events" (
                                             CONSTRAINT fk_calendar_events_user FOREIGN KEY ("app_user_id") REFERENCES "public"."app_users"("app_user_id")
 );
 
+CREATE TABLE "public"."outbox_events" (
+                                          "outbox_event_id" integer PRIMARY KEY,
+                                          "type" varchar NOT NULL,
+                                          "status" varchar NOT NULL,
+                                          "appointment_id" integer,
+                                          "recipient" varchar,
+                                          "subject" varchar,
+                                          "body" text,
+                                          "calendar_body" text,
+                                          "attempts" integer,
+                                          "last_error" varchar(1000),
+                                          "created_at" timestamp,
+                                          "next_attempt_at" timestamp,
+                                          "processed_at" timestamp
+);
+
+CREATE INDEX idx_outbox_events_status_next_attempt ON "public"."outbox_events" ("status", "next_attempt_at");
+
 ALTER TABLE appointments ADD COLUMN slot_id INTEGER;
 ALTER TABLE appointments ADD CONSTRAINT fk_appointments_slot
     FOREIGN KEY (slot_id) REFERENCES availability_slots(slot_id);
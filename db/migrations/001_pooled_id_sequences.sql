@@ -0,0 +1,61 @@
+-- Moves databases created from the SERIAL-era create_tables.sql onto the <table>_seq sequences the
+-- entities now draw ids from (INCREMENT BY 50, matching Hibernate's pooled-lo allocationSize).
+-- Run once against an existing database, before starting the new application version:
+--   psql -v ON_ERROR_STOP=1 -f db/migrations/001_pooled_id_sequences.sql
+-- Fresh databases get the same schema from create_tables.sql and do not need it.
+
+BEGIN;
+
+-- notifications was created with notif_id, but the entity has always mapped notification_id
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = 'public' AND table_name = 'notifications' AND column_name = 'notif_id') THEN
+        -- A schema update may already have added an empty notification_id next to it
+        ALTER TABLE "public"."notifications" DROP COLUMN IF EXISTS "notification_id";
+        ALTER TABLE "public"."notifications" RENAME COLUMN "notif_id" TO "notification_id";
+    END IF;
+END $$;
+
+-- outbox_events is created by Hibernate's schema update; older versions mapped it as an identity column
+ALTER TABLE IF EXISTS "public"."outbox_events" ALTER COLUMN "outbox_event_id" DROP IDENTITY IF EXISTS;
+
+-- Drop the SERIAL defaults along with the sequences behind them, then start each new sequence past
+-- the ids already in use
+DO $$
+DECLARE
+    id_column record;
+    serial_sequence text;
+BEGIN
+    FOR id_column IN
+        SELECT * FROM (VALUES
+            ('availability_slots', 'slot_id'),
+            ('appointments', 'appointment_id'),
+            ('calendar_events', 'calendar_event_id'),
+            ('calendar_tokens', 'token_id'),
+            ('notifications', 'notification_id'),
+            ('outbox_events', 'outbox_event_id'),
+            ('payments', 'payment_id'),
+            ('reviews', 'review_id')
+        ) AS t(table_name, column_name)
+    LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS "public".%I INCREMENT BY 50', id_column.table_name || '_seq');
+        EXECUTE format('ALTER SEQUENCE "public".%I INCREMENT BY 50', id_column.table_name || '_seq');
+
+        IF to_regclass(format('"public".%I', id_column.table_name)) IS NULL THEN
+            CONTINUE;
+        END IF;
+
+        serial_sequence := pg_get_serial_sequence(format('"public".%I', id_column.table_name), id_column.column_name);
+        EXECUTE format('ALTER TABLE "public".%I ALTER COLUMN %I DROP DEFAULT',
+                       id_column.table_name, id_column.column_name);
+        IF serial_sequence IS NOT NULL THEN
+            EXECUTE format('DROP SEQUENCE %s', serial_sequence);
+        END IF;
+
+        EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(%I) FROM "public".%I), 0) + 1, false)',
+                       'public.' || id_column.table_name || '_seq', id_column.column_name, id_column.table_name);
+    END LOOP;
+END $$;
+
+COMMIT;
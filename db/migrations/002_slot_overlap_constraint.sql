@@ -0,0 +1,44 @@
+-- Adds the exclusion constraint that keeps one admin's availability slots from overlapping, which
+-- closes the race between two concurrent check-then-insert calls. The application refuses to start
+-- on PostgreSQL until it is in place.
+-- Run once against an existing database, before starting the new application version:
+--   psql -v ON_ERROR_STOP=1 -f db/migrations/002_slot_overlap_constraint.sql
+-- Fresh databases get the same schema from create_tables.sql and do not need it.
+-- Fails without changing anything if stored slots already overlap, listing the conflicting pairs;
+-- delete or move them and run it again.
+
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+DECLARE
+    conflicts text;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'availability_slots_no_overlap') THEN
+        RETURN;
+    END IF;
+
+    -- Same rule as the constraint: half-open ranges of one admin that share any instant
+    SELECT string_agg(format('slot %s (%s - %s) and slot %s (%s - %s) of user %s',
+                             a_id, a_start, a_end, b_id, b_start, b_end, user_id), '; ')
+    INTO conflicts
+    FROM (SELECT a.slot_id AS a_id, a.start_time AS a_start, a.end_time AS a_end,
+                 b.slot_id AS b_id, b.start_time AS b_start, b.end_time AS b_end, a.app_user_id AS user_id
+          FROM "public"."availability_slots" a
+          JOIN "public"."availability_slots" b ON b.app_user_id = a.app_user_id AND b.slot_id > a.slot_id
+          WHERE a.start_time < b.end_time AND b.start_time < a.end_time
+            AND a.start_time < a.end_time AND b.start_time < b.end_time
+          ORDER BY a.slot_id, b.slot_id
+          LIMIT 20) overlapping;
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Cannot add availability_slots_no_overlap, these availability slots overlap (showing at most 20): %', conflicts;
+    END IF;
+
+    -- Default '[)' bounds, so back-to-back slots do not conflict
+    ALTER TABLE "public"."availability_slots" ADD CONSTRAINT availability_slots_no_overlap
+        EXCLUDE USING gist ("app_user_id" WITH =, tsrange("start_time", "end_time") WITH &&);
+END $$;
+
+COMMIT;
@@ -0,0 +1,35 @@
+-- Stores notifications.type as the NotificationType names the entity writes (REMINDER, ...) instead
+-- of the lower-case notification_type enum, which rejected every insert, and adds the unique key the
+-- reminder run claims each reminder with.
+-- Run once against an existing database, before starting the new application version:
+--   psql -v ON_ERROR_STOP=1 -f db/migrations/003_notification_type_varchar.sql
+-- Fresh databases get the same schema from create_tables.sql and do not need it.
+
+BEGIN;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = 'public' AND table_name = 'notifications' AND column_name = 'type'
+                 AND data_type = 'USER-DEFINED') THEN
+        ALTER TABLE "public"."notifications" ALTER COLUMN "type" TYPE varchar USING upper("type"::text);
+    END IF;
+END $$;
+
+DROP TYPE IF EXISTS "public"."notification_type";
+
+-- Rows that would break the key record the same notification more than once; keep the first of each
+DELETE FROM "public"."notifications" n
+USING "public"."notifications" earlier
+WHERE earlier.appointment_id = n.appointment_id AND earlier.type = n.type AND earlier.sent_at = n.sent_at
+  AND earlier.notification_id < n.notification_id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_notifications_appointment_type_sent_at') THEN
+        ALTER TABLE "public"."notifications" ADD CONSTRAINT uk_notifications_appointment_type_sent_at
+            UNIQUE ("appointment_id", "type", "sent_at");
+    END IF;
+END $$;
+
+COMMIT;
@@ -0,0 +1,8 @@
+-- Queued appointment emails carry a second body for recipients with a connected Google Calendar, so
+-- the dispatcher picks the variant for a whole batch instead of the booking looking it up per email.
+-- Rows queued before it keep a NULL calendar_body and are sent with their plain body.
+-- Run once against an existing database, before starting the new application version:
+--   psql -v ON_ERROR_STOP=1 -f db/migrations/004_outbox_calendar_body.sql
+-- Fresh databases get the same schema from create_tables.sql and do not need it.
+
+ALTER TABLE "public"."outbox_events" ADD COLUMN IF NOT EXISTS "calendar_body" text;
@@ -1,9 +1,15 @@
 package com.hszadkowski.iwa_backend.config;
 
+import com.google.api.client.googleapis.apache.v2.GoogleApacheHttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
 @Configuration
 @Getter
 public class GoogleCalendarConfig {
@@ -22,4 +28,13 @@ public class GoogleCalendarConfig {
 
     @Value("${google.calendar.access.type}")
     private String accessType;
+
+    /**
+     * Shared transport for all Google API calls, backed by a pooled Apache HTTP client
+     * so the trust store is loaded once and TLS connections are reused
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ApacheHttpTransport googleHttpTransport() throws GeneralSecurityException, IOException {
+        return GoogleApacheHttpTransport.newTrustedTransport();
+    }
 }
@@ -0,0 +1,34 @@
+package com.hszadkowski.iwa_backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class OAuthClientConfig {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Shared client for Google and Facebook identity lookups. The JDK client keeps TLS connections
+     * alive between logins (and multiplexes them over HTTP/2 where offered), and both timeouts keep
+     * a slow provider from holding a login request open indefinitely.
+     */
+    @Bean
+    public RestClient oauthRestClient(RestClient.Builder builder) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+
+        return builder.requestFactory(requestFactory).build();
+    }
+}
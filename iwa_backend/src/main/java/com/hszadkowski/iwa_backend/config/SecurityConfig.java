@@ -1,6 +1,7 @@
 package com.hszadkowski.iwa_backend.config;
 
 import com.hszadkowski.iwa_backend.services.MakeUpUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -64,6 +65,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Allow all OPTIONS requests for CORS preflight
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Streamed responses were authorized on the original request
                         .requestMatchers("/h2-console/**", "/register", "/register/facebook", 
                                 "/api/auth/**",
                                 "/user-already-exist", "/invalidSession")
@@ -72,7 +74,8 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/appointments").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/appointments/*/status").hasRole("ADMIN")
-                        .requestMatchers(HttpMethod.GET, "/api/availability", "/api/availability/service/**", "/api/availability/*/check", "/api/availability/*/can-book").permitAll()
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/availability", "/api/availability/stream", "/api/availability/service/**", "/api/availability/*/check").permitAll()
                         .anyRequest().authenticated())
                 .headers(headers -> headers
                         .frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
@@ -0,0 +1,39 @@
+package com.hszadkowski.iwa_backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * On PostgreSQL, refuses to start unless availability_slots carries the GiST exclusion constraint
+ * that rejects overlapping availability of the same admin. The service still checks for overlaps
+ * first to give a clear error; the constraint closes the race between two concurrent check-then-insert
+ * calls. It is created by db/create_tables.sql and added to existing databases by
+ * db/migrations/002_slot_overlap_constraint.sql. Other databases (H2 locally) rely on the check alone.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotOverlapConstraint implements SmartInitializingSingleton {
+
+    public static final String CONSTRAINT_NAME = "availability_slots_no_overlap";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT_NAME);
+        if (existing == null || existing == 0) {
+            throw new RuntimeException("Exclusion constraint " + CONSTRAINT_NAME + " is missing on availability_slots. "
+                    + "Run db/migrations/002_slot_overlap_constraint.sql against this database and restart.");
+        }
+    }
+}
@@ -1,18 +1,27 @@
 package com.hszadkowski.iwa_backend.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hszadkowski.iwa_backend.dto.AppointmentPageDto;
 import com.hszadkowski.iwa_backend.dto.AppointmentResponseDto;
 import com.hszadkowski.iwa_backend.dto.BookAppointmentDto;
+import com.hszadkowski.iwa_backend.dto.GetAppointmentsDto;
 import com.hszadkowski.iwa_backend.dto.RescheduleAppointmentDto;
 import com.hszadkowski.iwa_backend.dto.UpdateAppointmentStatusDto;
+import com.hszadkowski.iwa_backend.services.AppointmentVersionLookup;
 import com.hszadkowski.iwa_backend.services.interfaces.AppointmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +31,8 @@ import java.util.Map;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final ObjectMapper objectMapper;
+    private final AppointmentVersionLookup appointmentVersionLookup;
 
     @PostMapping
     public ResponseEntity<AppointmentResponseDto> bookAppointment(
@@ -33,23 +44,51 @@ public class AppointmentController {
     }
 
     @GetMapping("/my")
-    public ResponseEntity<List<AppointmentResponseDto>> getMyAppointments(Authentication authentication) {
+    public ResponseEntity<List<AppointmentResponseDto>> getMyAppointments(Authentication authentication,
+                                                                          WebRequest request) {
         String userEmail = authentication.getName();
-        List<AppointmentResponseDto> appointments = appointmentService.getUserAppointments(userEmail);
-        return ResponseEntity.ok(appointments);
+        return ConditionalGet.respondPrivate(request, appointmentVersionLookup.appointmentsOf(userEmail),
+                () -> appointmentService.getUserAppointments(userEmail));
     }
 
-    @GetMapping("/{id}") //maybe some more protection (user can only access his appointments etc.)
-    public ResponseEntity<AppointmentResponseDto> getAppointmentById(@PathVariable Integer id) {
-        AppointmentResponseDto appointment = appointmentService.getAppointmentById(id);
-        return ResponseEntity.ok(appointment);
+    @GetMapping("/{id}")
+    public ResponseEntity<AppointmentResponseDto> getAppointmentById(@PathVariable Integer id,
+                                                                     Authentication authentication,
+                                                                     WebRequest request) {
+        String userEmail = authentication.getName();
+        return ConditionalGet.respondPrivate(request, appointmentVersionLookup.appointment(id, userEmail),
+                () -> appointmentService.getAppointmentById(id, userEmail));
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AppointmentResponseDto>> getAllAppointments() {
-        List<AppointmentResponseDto> appointments = appointmentService.getAllAppointments();
-        return ResponseEntity.ok(appointments);
+    public ResponseEntity<List<AppointmentResponseDto>> getAllAppointments(WebRequest request) {
+        return ConditionalGet.respondPrivate(request, appointmentVersionLookup.allAppointments(),
+                appointmentService::getAllAppointments);
+    }
+
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AppointmentPageDto> getAppointmentsPage(@ModelAttribute @Valid GetAppointmentsDto query,
+                                                                  WebRequest request) {
+        return ConditionalGet.respondPrivate(request, appointmentVersionLookup.allAppointments(),
+                () -> appointmentService.getAppointmentsPage(query));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(@ModelAttribute @Valid GetAppointmentsDto query) {
+        StreamingResponseBody body = outputStream -> appointmentService.exportAppointments(query, appointment -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(appointment));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @PutMapping("/{id}/reschedule")
@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -40,11 +41,13 @@ public class AuthController {
 
     @PostMapping("/signup/facebook")
     public ResponseEntity<UserSignUpResponseDto> registerWithFacebook(@RequestBody FacebookUserDto facebookUser) {
+        // The profile lookup runs while the token is validated; its result is only used if the token is valid
+        CompletableFuture<FacebookUserDto> profile = facebookService.getFacebookUserInfoAsync(facebookUser.getAccessToken());
         if (!facebookService.validateFacebookToken(facebookUser.getAccessToken())) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        FacebookUserDto facebookValidatedUser = facebookService.getFacebookUserInfo(facebookUser.getAccessToken());
+        FacebookUserDto facebookValidatedUser = profile.join();
         if (facebookValidatedUser == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -55,11 +58,12 @@ public class AuthController {
 
     @PostMapping("/signup/google")
     public ResponseEntity<UserSignUpResponseDto> registerWithGoogle(@RequestBody GoogleUserDto googleUser) {
+        CompletableFuture<GoogleUserDto> profile = googleAuthService.getGoogleUserInfoAsync(googleUser.getAccessToken());
         if (!googleAuthService.validateGoogleToken(googleUser.getAccessToken())) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        GoogleUserDto validatedGoogleUser = googleAuthService.getGoogleUserInfo(googleUser.getAccessToken());
+        GoogleUserDto validatedGoogleUser = profile.join();
         if (validatedGoogleUser == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -90,10 +94,11 @@ public class AuthController {
 
         switch (oauthDto.getProvider().toLowerCase()) {
             case "facebook":
+                CompletableFuture<FacebookUserDto> fbProfile = facebookService.getFacebookUserInfoAsync(oauthDto.getAccessToken());
                 if (!facebookService.validateFacebookToken(oauthDto.getAccessToken())) {
                     return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
                 }
-                FacebookUserDto fbUser = facebookService.getFacebookUserInfo(oauthDto.getAccessToken());
+                FacebookUserDto fbUser = fbProfile.join();
                 if (fbUser != null) {
                     email = fbUser.getEmail();
                     isValid = true;
@@ -101,10 +106,11 @@ public class AuthController {
                 break;
 
             case "google":
+                CompletableFuture<GoogleUserDto> googleProfile = googleAuthService.getGoogleUserInfoAsync(oauthDto.getAccessToken());
                 if (!googleAuthService.validateGoogleToken(oauthDto.getAccessToken())) {
                     return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
                 }
-                GoogleUserDto googleUser = googleAuthService.getGoogleUserInfo(oauthDto.getAccessToken());
+                GoogleUserDto googleUser = googleProfile.join();
                 if (googleUser != null) {
                     email = googleUser.getEmail();
                     isValid = true;
@@ -2,15 +2,23 @@ package com.hszadkowski.iwa_backend.controllers;
 
 import com.hszadkowski.iwa_backend.dto.AvailabilitySlotResponseDto;
 import com.hszadkowski.iwa_backend.dto.CreateAvailabilitySlotDto;
+import com.hszadkowski.iwa_backend.dto.CreateRecurringAvailabilityDto;
 import com.hszadkowski.iwa_backend.dto.GetAvailableSlotsDto;
+import com.hszadkowski.iwa_backend.dto.RecurringAvailabilityResultDto;
+import com.hszadkowski.iwa_backend.services.ResourceVersionTracker;
+import com.hszadkowski.iwa_backend.services.ResourceVersionTracker.VersionedResource;
+import com.hszadkowski.iwa_backend.services.SlotChangeStreamHub;
 import com.hszadkowski.iwa_backend.services.interfaces.AvailabilityService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -20,6 +28,8 @@ import java.util.List;
 public class AvailabilitySlotsController {
 
     private final AvailabilityService availabilityService;
+    private final ResourceVersionTracker resourceVersionTracker;
+    private final SlotChangeStreamHub slotChangeStreamHub;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -31,24 +41,40 @@ public class AvailabilitySlotsController {
         return ResponseEntity.status(HttpStatus.CREATED).body(availabilitySlot);
     }
 
+    @PostMapping("/recurring")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecurringAvailabilityResultDto> createRecurringAvailability(
+            @RequestBody @Valid CreateRecurringAvailabilityDto createRecurringAvailabilityDto,
+            Authentication authentication) {
+        RecurringAvailabilityResultDto result = availabilityService.createRecurringAvailability(
+                createRecurringAvailabilityDto, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
     @GetMapping
     public ResponseEntity<List<AvailabilitySlotResponseDto>> getAvailableSlots(
-            @ModelAttribute @Valid GetAvailableSlotsDto getAvailableSlotsDto) {
-        List<AvailabilitySlotResponseDto> slots = availabilityService.getAvailableSlots(getAvailableSlotsDto);
-        return ResponseEntity.ok(slots);
+            @ModelAttribute @Valid GetAvailableSlotsDto getAvailableSlotsDto, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersionTracker.current(VersionedResource.AVAILABILITY),
+                () -> availabilityService.getAvailableSlots(getAvailableSlotsDto));
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<AvailabilitySlotResponseDto>> getAllSlots() {
-        List<AvailabilitySlotResponseDto> slots = availabilityService.getAllSlots();
-        return ResponseEntity.ok(slots);
+    public ResponseEntity<List<AvailabilitySlotResponseDto>> getAllSlots(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersionTracker.current(VersionedResource.AVAILABILITY),
+                availabilityService::getAllSlots);
     }
 
     @GetMapping("/service/{serviceId}")
     public ResponseEntity<List<AvailabilitySlotResponseDto>> getSlotsByService(
-            @PathVariable Integer serviceId) {
-        List<AvailabilitySlotResponseDto> slots = availabilityService.getSlotsByService(serviceId);
-        return ResponseEntity.ok(slots);
+            @PathVariable Integer serviceId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersionTracker.current(VersionedResource.AVAILABILITY),
+                () -> availabilityService.getSlotsByService(serviceId));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSlotChanges(@RequestParam(required = false) Integer serviceId,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return slotChangeStreamHub.subscribe(serviceId, lastEventId);
     }
 
     @GetMapping("/{slotId}/check")
@@ -86,10 +112,4 @@ public class AvailabilitySlotsController {
         availabilityService.deleteSlot(slotId);
         return ResponseEntity.noContent().build();
     }
-
-    @GetMapping("/{slotId}/can-book")
-    public ResponseEntity<Boolean> canBookSlot(@PathVariable Integer slotId) {
-        boolean canBook = availabilityService.canBookSlot(slotId);
-        return ResponseEntity.ok(canBook);
-    }
 }
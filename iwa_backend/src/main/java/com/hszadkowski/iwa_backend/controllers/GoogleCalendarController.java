@@ -134,11 +134,13 @@ public class GoogleCalendarController {
                         .body(Map.of("error", "Not connected to Google Calendar"));
             }
 
-            int syncedCount = googleCalendarService.syncExistingAppointments(userEmail);
+            CalendarBulkSyncResultDto syncResult = googleCalendarService.syncExistingAppointments(userEmail);
 
             return ResponseEntity.ok(Map.of(
                     "message", "Successfully synced appointments",
-                    "syncedCount", syncedCount
+                    "syncedCount", syncResult.getSyncedCount(),
+                    "failedCount", syncResult.getFailedCount(),
+                    "failures", syncResult.getFailures()
             ));
 
         } catch (Exception e) {
@@ -147,4 +149,17 @@ public class GoogleCalendarController {
                     .body(Map.of("error", "Failed to sync appointments"));
         }
     }
+
+    @PostMapping("/google/pull-changes")
+    public ResponseEntity<?> pullCalendarChanges(Authentication authentication) {
+        try {
+            String userEmail = authentication.getName();
+            CalendarPullResultDto result = googleCalendarService.pullCalendarChanges(userEmail);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("Error pulling Google Calendar changes: ", e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Failed to pull calendar changes"));
+        }
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,14 +20,17 @@ public class ServiceController {
 
     private final MakeUpServicesService makeUpServicesService;
 
+    // The ETag is read before the body, so a concurrent change can only make the body newer than its tag
     @GetMapping
-    public ResponseEntity<List<ServiceResponseDto>> getAllServices() {
-        return ResponseEntity.ok(makeUpServicesService.getAllServices());
+    public ResponseEntity<List<ServiceResponseDto>> getAllServices(WebRequest request) {
+        return ConditionalGet.respond(request, makeUpServicesService.getCatalogETag(),
+                makeUpServicesService::getAllServices);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ServiceResponseDto> getServiceById(@PathVariable Integer id) {
-        return ResponseEntity.ok(makeUpServicesService.getServiceById(id));
+    public ResponseEntity<ServiceResponseDto> getServiceById(@PathVariable Integer id, WebRequest request) {
+        return ConditionalGet.respond(request, makeUpServicesService.getCatalogETag(),
+                () -> makeUpServicesService.getServiceById(id));
     }
 
     @PostMapping
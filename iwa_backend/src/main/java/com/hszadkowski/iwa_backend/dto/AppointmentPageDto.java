@@ -0,0 +1,15 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentPageDto {
+    private List<AppointmentResponseDto> items;
+    private Integer nextCursor; // null when there are no more pages
+}
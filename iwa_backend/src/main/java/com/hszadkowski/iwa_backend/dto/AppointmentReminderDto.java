@@ -0,0 +1,27 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Everything a reminder email needs, read in one row so the reminder run does no lazy loading.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class AppointmentReminderDto {
+    private Integer appointmentId;
+    private Integer userId;
+    private String userEmail;
+    private String userName;
+    private String serviceName;
+    private Integer serviceDurationMin;
+    private LocalDate scheduledAt;
+    private LocalDateTime startTime;
+    private String location;
+    private String description;
+}
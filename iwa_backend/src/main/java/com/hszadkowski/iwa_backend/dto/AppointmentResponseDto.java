@@ -24,4 +24,13 @@ public class AppointmentResponseDto {
     private String location;
     private LocalDate scheduledAt;
     private String description;
+
+    // Used by the repository projection; builds the user name the same way the entity mapping does
+    public AppointmentResponseDto(Integer appointmentId, Integer userId, String userFirstName, String userSurname,
+                                  Integer serviceId, String serviceName, String serviceDescription,
+                                  Integer serviceDurationMin, BigDecimal servicePrice, String status,
+                                  String location, LocalDate scheduledAt, String description) {
+        this(appointmentId, userId, userFirstName + " " + userSurname, serviceId, serviceName, serviceDescription,
+                serviceDurationMin, servicePrice, status, location, scheduledAt, description);
+    }
 }
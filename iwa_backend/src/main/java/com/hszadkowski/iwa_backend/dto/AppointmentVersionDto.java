@@ -0,0 +1,18 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row count and latest change of a set of appointments, enough to tell whether a listing changed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentVersionDto {
+    private Long count;
+    private LocalDateTime lastUpdatedAt; // null when the set is empty
+}
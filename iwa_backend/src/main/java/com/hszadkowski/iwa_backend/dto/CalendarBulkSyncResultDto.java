@@ -0,0 +1,16 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarBulkSyncResultDto {
+    private int syncedCount;
+    private int failedCount;
+    private Map<Integer, String> failures; // appointmentId -> error message
+}
@@ -0,0 +1,15 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarPullResultDto {
+    private int changedCount;
+    private int movedCount;
+    private int deletedCount;
+    private boolean fullResync;
+}
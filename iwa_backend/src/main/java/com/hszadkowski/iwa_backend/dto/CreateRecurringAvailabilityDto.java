@@ -0,0 +1,44 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Weekly availability template, e.g. Mon-Fri 09:00-17:00 in 60-minute slots, expanded for every
+ * matching day from startDate to endDate (inclusive).
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CreateRecurringAvailabilityDto {
+
+    @NotNull
+    private Integer serviceId;
+
+    @NotNull
+    private LocalDate startDate;
+
+    @NotNull
+    private LocalDate endDate;
+
+    @NotEmpty
+    private Set<DayOfWeek> daysOfWeek;
+
+    @NotNull
+    private LocalTime dayStartTime;
+
+    @NotNull
+    private LocalTime dayEndTime;
+
+    @Positive
+    private Integer slotDurationMin; // defaults to the service duration
+}
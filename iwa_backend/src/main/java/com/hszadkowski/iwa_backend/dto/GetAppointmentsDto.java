@@ -0,0 +1,45 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import com.hszadkowski.iwa_backend.models.AppointmentStatusName;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class GetAppointmentsDto {
+
+    private String status;
+
+    private Integer serviceId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private Integer afterId; // keyset cursor: nextCursor of the previous page
+
+    @Min(1)
+    @Max(200)
+    private Integer size = 50;
+
+    // Checked up front so the export fails with 400 before its response starts streaming
+    @AssertTrue(message = "Unknown appointment status")
+    public boolean isStatusKnown() {
+        return status == null || AppointmentStatusName.fromString(status).isPresent();
+    }
+
+    @AssertTrue(message = "from must not be after to")
+    public boolean isDateRangeValid() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringAvailabilityResultDto {
+    private Integer serviceId;
+    private int createdCount;
+    private int skippedCount; // overlapped existing availability or already started
+}
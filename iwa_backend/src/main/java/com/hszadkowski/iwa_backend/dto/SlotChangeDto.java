@@ -0,0 +1,19 @@
+package com.hszadkowski.iwa_backend.dto;
+
+import com.hszadkowski.iwa_backend.events.SlotChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One pushed availability delta. {@code slot} is set while the slot is open and bookable;
+ * when it is null the slot should be dropped from the client's list.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class SlotChangeDto {
+    private Integer slotId;
+    private SlotChangeType changeType;
+    private AvailabilitySlotResponseDto slot;
+}
@@ -0,0 +1,14 @@
+package com.hszadkowski.iwa_backend.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a service is created, updated or deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class ServiceCatalogChangedEvent {
+    private final Integer serviceId;
+    private final boolean deleted;
+}
@@ -0,0 +1,17 @@
+package com.hszadkowski.iwa_backend.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever an availability slot is created, changed, booked, released or removed.
+ * Listeners that mirror slot state should react after the surrounding transaction commits.
+ * The service id is the slot's service, so listeners can route the change without loading the slot.
+ */
+@Getter
+@AllArgsConstructor
+public class SlotAvailabilityChangedEvent {
+    private final Integer slotId;
+    private final Integer serviceId;
+    private final SlotChangeType changeType;
+}
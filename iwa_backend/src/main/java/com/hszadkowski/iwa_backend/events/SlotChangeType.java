@@ -0,0 +1,9 @@
+package com.hszadkowski.iwa_backend.events;
+
+public enum SlotChangeType {
+    CREATED,
+    UPDATED,
+    BOOKED,
+    RELEASED,
+    DELETED
+}
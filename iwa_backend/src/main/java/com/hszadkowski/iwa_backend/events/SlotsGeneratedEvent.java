@@ -0,0 +1,15 @@
+package com.hszadkowski.iwa_backend.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a batch of slots is inserted for one service, in place of one
+ * {@link SlotAvailabilityChangedEvent} per slot.
+ */
+@Getter
+@AllArgsConstructor
+public class SlotsGeneratedEvent {
+    private final Integer serviceId;
+    private final int count;
+}
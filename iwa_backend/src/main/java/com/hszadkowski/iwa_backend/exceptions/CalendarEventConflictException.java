@@ -0,0 +1,12 @@
+package com.hszadkowski.iwa_backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CalendarEventConflictException extends ResponseStatusException {
+    public CalendarEventConflictException(String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+}
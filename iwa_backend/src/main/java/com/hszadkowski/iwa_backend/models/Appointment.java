@@ -4,8 +4,10 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -16,7 +18,8 @@ import java.util.List;
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     @Column(name = "appointment_id")
     private Integer appointmentId;
 
@@ -40,6 +43,10 @@ public class Appointment {
     private LocalDate scheduledAt;
     private String description;
 
+    // Set on insert and every update; appointment listing ETags are derived from it
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     @OneToOne(mappedBy = "appointment")
     private Payment payment;
 
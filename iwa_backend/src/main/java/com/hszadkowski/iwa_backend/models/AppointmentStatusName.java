@@ -0,0 +1,20 @@
+package com.hszadkowski.iwa_backend.models;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Names of the seeded rows in appointment_statuses
+ */
+public enum AppointmentStatusName {
+    PENDING,
+    CONFIRMED,
+    COMPLETED,
+    CANCELLED;
+
+    public static Optional<AppointmentStatusName> fromString(String name) {
+        return Arrays.stream(values())
+                .filter(value -> value.name().equalsIgnoreCase(name))
+                .findFirst();
+    }
+}
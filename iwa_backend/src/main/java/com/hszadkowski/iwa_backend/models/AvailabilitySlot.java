@@ -9,14 +9,16 @@ import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "availability_slots")
+@Table(name = "availability_slots",
+        indexes = @Index(name = "idx_availability_slots_user_start_time", columnList = "app_user_id, startTime"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AvailabilitySlot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "availability_slots_seq")
+    @SequenceGenerator(name = "availability_slots_seq", sequenceName = "availability_slots_seq", allocationSize = 50)
     @Column(name = "slot_id")
     private Integer slotId;
 
@@ -13,7 +13,8 @@ import lombok.NoArgsConstructor;
 public class CalendarEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calendar_events_seq")
+    @SequenceGenerator(name = "calendar_events_seq", sequenceName = "calendar_events_seq", allocationSize = 50)
     @Column(name = "calendar_event_id")
     private Integer calendarEventId;
 
@@ -28,5 +29,6 @@ public class CalendarEvent {
     private String provider;
     private String externalEventId;
     private String calendarId;
+    private String etag; // last version of the event written or seen by us
     private Boolean synced;
 }
\ No newline at end of file
@@ -8,14 +8,19 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "calendar_tokens")
+@Table(name = "calendar_tokens",
+        indexes = {
+                @Index(name = "idx_calendar_tokens_provider_expires_at", columnList = "provider, expiresAt"),
+                @Index(name = "idx_calendar_tokens_provider_next_refresh_at", columnList = "provider, nextRefreshAt")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CalendarToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calendar_tokens_seq")
+    @SequenceGenerator(name = "calendar_tokens_seq", sequenceName = "calendar_tokens_seq", allocationSize = 50)
     @Column(name = "token_id")
     private Integer tokenId;
 
@@ -28,4 +33,6 @@ public class CalendarToken {
     private String refreshToken;
     private LocalDateTime expiresAt;
     private String email;
+    private String syncToken; // Google incremental sync token for the primary calendar
+    private LocalDateTime nextRefreshAt; // null when the token cannot be refreshed (implicit flow)
 }
\ No newline at end of file
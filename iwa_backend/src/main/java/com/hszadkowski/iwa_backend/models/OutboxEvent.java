@@ -0,0 +1,53 @@
+package com.hszadkowski.iwa_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Side effect (email or calendar action) recorded in the same transaction as the
+ * appointment change and delivered later by the outbox dispatcher.
+ */
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_status_next_attempt", columnList = "status, nextAttemptAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    @Column(name = "outbox_event_id")
+    private Integer outboxEventId;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType type;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxEventStatus status;
+
+    private Integer appointmentId;
+    private String recipient;
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    // Variant of the email body for recipients with a connected Google Calendar, chosen when it is sent
+    @Column(columnDefinition = "TEXT")
+    private String calendarBody;
+
+    private Integer attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime processedAt;
+}
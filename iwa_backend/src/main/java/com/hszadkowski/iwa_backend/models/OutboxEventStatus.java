@@ -0,0 +1,8 @@
+package com.hszadkowski.iwa_backend.models;
+
+public enum OutboxEventStatus {
+    PENDING,
+    IN_PROGRESS,
+    SENT,
+    FAILED
+}
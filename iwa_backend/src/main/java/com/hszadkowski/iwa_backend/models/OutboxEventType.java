@@ -0,0 +1,14 @@
+package com.hszadkowski.iwa_backend.models;
+
+public enum OutboxEventType {
+    CONFIRMATION_EMAIL,
+    RESCHEDULE_EMAIL,
+    CANCELLATION_EMAIL,
+    CALENDAR_CREATE,
+    CALENDAR_UPDATE,
+    CALENDAR_DELETE;
+
+    public boolean isEmail() {
+        return this == CONFIRMATION_EMAIL || this == RESCHEDULE_EMAIL || this == CANCELLATION_EMAIL;
+    }
+}
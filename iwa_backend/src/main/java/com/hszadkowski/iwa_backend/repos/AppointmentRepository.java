@@ -1,24 +1,54 @@
 package com.hszadkowski.iwa_backend.repos;
 
+import com.hszadkowski.iwa_backend.dto.AppointmentReminderDto;
+import com.hszadkowski.iwa_backend.dto.AppointmentResponseDto;
+import com.hszadkowski.iwa_backend.dto.AppointmentVersionDto;
 import com.hszadkowski.iwa_backend.models.AppUser;
 import com.hszadkowski.iwa_backend.models.Appointment;
 import com.hszadkowski.iwa_backend.models.AppointmentStatus;
 import com.hszadkowski.iwa_backend.models.AvailabilitySlot;
+import com.hszadkowski.iwa_backend.models.NotificationType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
+
+    String RESPONSE_DTO_PROJECTION = "SELECT new com.hszadkowski.iwa_backend.dto.AppointmentResponseDto(" +
+            "a.appointmentId, u.appUserId, u.name, u.surname, s.serviceId, s.name, s.description, " +
+            "s.durationMin, s.price, st.name, a.location, a.scheduledAt, a.description) " +
+            "FROM Appointment a JOIN a.appUser u LEFT JOIN a.service s JOIN a.status st ";
+
+    String ADMIN_FILTER = "WHERE (:status IS NULL OR st.name = :status) " +
+            "AND (:serviceId IS NULL OR s.serviceId = :serviceId) " +
+            "AND (:fromDate IS NULL OR a.scheduledAt >= :fromDate) " +
+            "AND (:toDate IS NULL OR a.scheduledAt <= :toDate) ";
+
+    String VERSION_PROJECTION = "SELECT new com.hszadkowski.iwa_backend.dto.AppointmentVersionDto(" +
+            "COUNT(a), MAX(a.updatedAt)) FROM Appointment a ";
+
     List<Appointment> findByAppUser(AppUser appUser);
 
     List<Appointment> findByScheduledAtAndStatus(LocalDate scheduledAt, AppointmentStatus status);
 
     List<Appointment> findByScheduledAt(LocalDate scheduledAt);
 
+    // Joins everything calendar sync reads, including the mappedBy one-to-ones that are always loaded eagerly
+    @EntityGraph(attributePaths = {"slot", "service", "status", "appUser", "payment", "review"})
     List<Appointment> findByAppUserAndScheduledAtAfterAndStatusNameNot(
             AppUser user,
             LocalDate date,
@@ -26,4 +56,60 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
     );
     
     Optional<Appointment> findBySlotAndStatusNameNotIn(AvailabilitySlot slot, List<String> excludedStatuses);
+
+    @Query(RESPONSE_DTO_PROJECTION + "ORDER BY a.appointmentId")
+    List<AppointmentResponseDto> findAllResponseDtos();
+
+    @Query(RESPONSE_DTO_PROJECTION + "WHERE u.email = :email ORDER BY a.appointmentId")
+    List<AppointmentResponseDto> findResponseDtosByAppUserEmail(@Param("email") String email);
+
+    @Query(RESPONSE_DTO_PROJECTION + "WHERE a.appointmentId = :appointmentId")
+    Optional<AppointmentResponseDto> findResponseDtoById(@Param("appointmentId") Integer appointmentId);
+
+    @Query(VERSION_PROJECTION)
+    AppointmentVersionDto findVersion();
+
+    @Query(VERSION_PROJECTION + "WHERE a.appUser.email = :email")
+    AppointmentVersionDto findVersionByAppUserEmail(@Param("email") String email);
+
+    @Query(VERSION_PROJECTION + "WHERE a.appointmentId = :appointmentId")
+    AppointmentVersionDto findVersionById(@Param("appointmentId") Integer appointmentId);
+
+    // The owner's name is part of every listing, so renaming them changes the version of their appointments
+    @Modifying
+    @Query("UPDATE Appointment a SET a.updatedAt = :updatedAt WHERE a.appUser = :appUser")
+    int touchByAppUser(@Param("appUser") AppUser appUser, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Keyset page, newest first; afterId is the last appointmentId of the previous page
+    @Query(RESPONSE_DTO_PROJECTION + ADMIN_FILTER +
+            "AND (:afterId IS NULL OR a.appointmentId < :afterId) " +
+            "ORDER BY a.appointmentId DESC")
+    List<AppointmentResponseDto> findResponseDtoPage(@Param("status") String status,
+                                                     @Param("serviceId") Integer serviceId,
+                                                     @Param("fromDate") LocalDate fromDate,
+                                                     @Param("toDate") LocalDate toDate,
+                                                     @Param("afterId") Integer afterId,
+                                                     Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_DTO_PROJECTION + ADMIN_FILTER + "ORDER BY a.appointmentId DESC")
+    Stream<AppointmentResponseDto> streamResponseDtos(@Param("status") String status,
+                                                      @Param("serviceId") Integer serviceId,
+                                                      @Param("fromDate") LocalDate fromDate,
+                                                      @Param("toDate") LocalDate toDate);
+
+    // Skips appointments whose reminder for this day has already been claimed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT new com.hszadkowski.iwa_backend.dto.AppointmentReminderDto(" +
+            "a.appointmentId, u.appUserId, u.email, u.name, s.name, s.durationMin, a.scheduledAt, sl.startTime, " +
+            "a.location, a.description) " +
+            "FROM Appointment a JOIN a.appUser u LEFT JOIN a.service s JOIN a.slot sl JOIN a.status st " +
+            "WHERE a.scheduledAt = :scheduledAt AND st.name = :status " +
+            "AND NOT EXISTS (SELECT n.notificationId FROM Notification n " +
+            "WHERE n.appointment = a AND n.type = :type AND n.sentAt = :sentAt) " +
+            "ORDER BY a.appointmentId")
+    Stream<AppointmentReminderDto> streamPendingReminders(@Param("scheduledAt") LocalDate scheduledAt,
+                                                          @Param("status") String status,
+                                                          @Param("type") NotificationType type,
+                                                          @Param("sentAt") LocalDate sentAt);
 }
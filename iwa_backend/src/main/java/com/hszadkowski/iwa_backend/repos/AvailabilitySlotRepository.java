@@ -1,9 +1,12 @@
 package com.hszadkowski.iwa_backend.repos;
 
+import com.hszadkowski.iwa_backend.dto.AvailabilitySlotResponseDto;
 import com.hszadkowski.iwa_backend.models.AppUser;
 import com.hszadkowski.iwa_backend.models.AvailabilitySlot;
 import com.hszadkowski.iwa_backend.models.Service;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,30 +17,61 @@ import java.util.List;
 @Repository
 public interface AvailabilitySlotRepository extends JpaRepository<AvailabilitySlot, Integer> {
 
+    String RESPONSE_DTO_PROJECTION = "SELECT new com.hszadkowski.iwa_backend.dto.AvailabilitySlotResponseDto(" +
+            "a.slotId, s.serviceId, s.name, a.startTime, a.endTime, a.isBooked) " +
+            "FROM AvailabilitySlot a LEFT JOIN a.service s ";
+
     List<AvailabilitySlot> findByService(Service service);
 
+    @Query(RESPONSE_DTO_PROJECTION + "ORDER BY a.startTime, a.slotId")
+    List<AvailabilitySlotResponseDto> findAllResponseDtos();
+
+    @Query(RESPONSE_DTO_PROJECTION + "WHERE s.serviceId = :serviceId ORDER BY a.startTime, a.slotId")
+    List<AvailabilitySlotResponseDto> findResponseDtosByServiceId(@Param("serviceId") Integer serviceId);
+
     List<AvailabilitySlot> findByIsBookedFalseAndStartTimeBetween(
             LocalDateTime startTime, LocalDateTime endTime);
 
     List<AvailabilitySlot> findByServiceAndIsBookedFalseAndStartTimeBetween(
             Service service, LocalDateTime startTime, LocalDateTime endTime);
 
+    @EntityGraph(attributePaths = {"service", "appUser"})
+    List<AvailabilitySlot> findByIsBookedFalseAndStartTimeAfter(LocalDateTime startTime);
+
+    @EntityGraph(attributePaths = {"service", "appUser"})
+    List<AvailabilitySlot> findByServiceServiceIdAndIsBookedFalseAndStartTimeAfter(
+            Integer serviceId, LocalDateTime startTime);
+
+    // Half-open ranges overlap when each starts before the other ends; on PostgreSQL the same rule is
+    // enforced by an exclusion constraint (see SlotOverlapConstraint)
     @Query("SELECT a FROM AvailabilitySlot a WHERE a.appUser = :admin AND " +
-            "((a.startTime <= :startTime AND a.endTime > :startTime) OR " +
-            "(a.startTime < :endTime AND a.endTime >= :endTime) OR " +
-            "(a.startTime >= :startTime AND a.endTime <= :endTime))")
+            "a.startTime < :endTime AND a.endTime > :startTime")
     List<AvailabilitySlot> findOverlappingSlots(@Param("admin") AppUser admin,
                                                 @Param("startTime") LocalDateTime startTime,
                                                 @Param("endTime") LocalDateTime endTime);
 
     @Query("SELECT a FROM AvailabilitySlot a WHERE a.appUser = :admin AND " +
-            "a.slotId != :excludeId AND " +
-            "((a.startTime <= :startTime AND a.endTime > :startTime) OR " +
-            "(a.startTime < :endTime AND a.endTime >= :endTime) OR " +
-            "(a.startTime >= :startTime AND a.endTime <= :endTime))")
+            "a.slotId != :excludeId AND a.startTime < :endTime AND a.endTime > :startTime")
     List<AvailabilitySlot> findOverlappingSlotsExcluding(@Param("admin") AppUser admin,
                                                          @Param("startTime") LocalDateTime startTime,
                                                          @Param("endTime") LocalDateTime endTime,
                                                          @Param("excludeId") Integer excludeId);
 
+    // One range read for bulk generation; an admin's slots never overlap, so ends are ordered like starts
+    @Query(RESPONSE_DTO_PROJECTION + "WHERE a.appUser = :admin AND a.startTime < :endTime AND a.endTime > :startTime " +
+            "ORDER BY a.startTime")
+    List<AvailabilitySlotResponseDto> findResponseDtosOverlappingRange(@Param("admin") AppUser admin,
+                                                                       @Param("startTime") LocalDateTime startTime,
+                                                                       @Param("endTime") LocalDateTime endTime);
+
+    // Returns 1 if this caller won the slot, 0 if it is already booked, has started or does not exist
+    @Modifying
+    @Query("UPDATE AvailabilitySlot a SET a.isBooked = true " +
+            "WHERE a.slotId = :slotId AND a.isBooked = false AND a.startTime > :now")
+    int reserveSlot(@Param("slotId") Integer slotId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AvailabilitySlot a SET a.isBooked = false WHERE a.slotId = :slotId")
+    int releaseSlot(@Param("slotId") Integer slotId);
+
 }
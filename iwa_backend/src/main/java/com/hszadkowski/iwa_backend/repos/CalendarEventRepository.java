@@ -4,15 +4,23 @@ import com.hszadkowski.iwa_backend.models.Appointment;
 import com.hszadkowski.iwa_backend.models.AppUser;
 import com.hszadkowski.iwa_backend.models.CalendarEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CalendarEventRepository extends JpaRepository<CalendarEvent, Integer> {
     Optional<CalendarEvent> findByAppointmentAndProvider(Appointment appointment, String provider);
     List<CalendarEvent> findByAppUserAndProvider(AppUser appUser, String provider);
+
+    @Query("SELECT ce.appointment.appointmentId FROM CalendarEvent ce WHERE ce.appUser = :appUser AND ce.provider = :provider")
+    Set<Integer> findAppointmentIdsByAppUserAndProvider(@Param("appUser") AppUser appUser,
+                                                       @Param("provider") String provider);
+
     Optional<CalendarEvent> findByExternalEventIdAndProvider(String externalEventId, String provider);
     void deleteByAppointmentAndProvider(Appointment appointment, String provider);
 }
@@ -2,12 +2,49 @@ package com.hszadkowski.iwa_backend.repos;
 
 import com.hszadkowski.iwa_backend.models.AppUser;
 import com.hszadkowski.iwa_backend.models.CalendarToken;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CalendarTokenRepository extends JpaRepository<CalendarToken, Integer> {
     Optional<CalendarToken> findByAppUserAndProvider(AppUser appUser, String provider);
     Optional<CalendarToken> findByAppUser(AppUser appUser);
+    Optional<CalendarToken> findByAppUserEmailAndProvider(String email, String provider);
     void deleteByAppUserAndProvider(AppUser appUser, String provider);
-}
\ No newline at end of file
+    boolean existsByAppUserEmailAndProviderAndExpiresAtAfter(String email, String provider, LocalDateTime now);
+
+    @Query("SELECT t.appUser.email FROM CalendarToken t " +
+            "WHERE t.appUser.email IN :emails AND t.provider = :provider AND t.expiresAt > :now")
+    List<String> findConnectedEmails(@Param("emails") Collection<String> emails,
+                                     @Param("provider") String provider,
+                                     @Param("now") LocalDateTime now);
+
+    // Keyset page over the (provider, nextRefreshAt) index; the owner is fetched with the token
+    @Query("SELECT t FROM CalendarToken t JOIN FETCH t.appUser " +
+            "WHERE t.provider = :provider AND t.nextRefreshAt <= :now AND t.tokenId > :afterId " +
+            "ORDER BY t.tokenId")
+    List<CalendarToken> findDueForRefreshPage(@Param("provider") String provider,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("afterId") Integer afterId,
+                                              Limit limit);
+
+    // Tokens stored before refreshes were scheduled get their first refresh at expiry
+    @Modifying
+    @Transactional
+    @Query("UPDATE CalendarToken t SET t.nextRefreshAt = t.expiresAt " +
+            "WHERE t.nextRefreshAt IS NULL AND t.refreshToken IS NOT NULL")
+    int scheduleUnscheduledRefreshes();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CalendarToken t WHERE t.provider = :provider AND t.expiresAt < :before")
+    int deleteExpiredBefore(@Param("provider") String provider, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,57 @@
+package com.hszadkowski.iwa_backend.repos;
+
+import com.hszadkowski.iwa_backend.models.OutboxEvent;
+import com.hszadkowski.iwa_backend.models.OutboxEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Integer> {
+
+    @Query("SELECT o FROM OutboxEvent o WHERE o.status IN :statuses AND o.nextAttemptAt <= :now " +
+            "ORDER BY o.outboxEventId")
+    List<OutboxEvent> findDueEvents(@Param("statuses") Collection<OutboxEventStatus> statuses,
+                                    @Param("now") LocalDateTime now,
+                                    Pageable pageable);
+
+    // Returns 1 if this caller claimed the event, 0 if another dispatcher got to it first
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.status = :claimed, o.nextAttemptAt = :leaseUntil " +
+            "WHERE o.outboxEventId = :id AND o.status IN :claimable AND o.nextAttemptAt <= :now")
+    int claimEvent(@Param("id") Integer id,
+                   @Param("claimable") Collection<OutboxEventStatus> claimable,
+                   @Param("claimed") OutboxEventStatus claimed,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Records the outcome of a delivery; returns 0 if the claim identified by leaseUntil was lost
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.status = :status, o.attempts = :attempts, o.lastError = :lastError, " +
+            "o.nextAttemptAt = :nextAttemptAt, o.processedAt = :processedAt " +
+            "WHERE o.outboxEventId = :id AND o.status = :claimed AND o.nextAttemptAt = :leaseUntil")
+    int completeClaimedEvent(@Param("id") Integer id,
+                             @Param("claimed") OutboxEventStatus claimed,
+                             @Param("leaseUntil") LocalDateTime leaseUntil,
+                             @Param("status") OutboxEventStatus status,
+                             @Param("attempts") Integer attempts,
+                             @Param("lastError") String lastError,
+                             @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                             @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent o WHERE o.status = :status AND o.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") OutboxEventStatus status,
+                              @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,63 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.models.AppointmentStatus;
+import com.hszadkowski.iwa_backend.models.AppointmentStatusName;
+import com.hszadkowski.iwa_backend.repos.AppointmentStatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the appointment status reference rows, loaded at startup so write paths
+ * can attach a status without querying for it. Call {@link #refresh()} after the rows change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentStatusRegistry {
+
+    private final AppointmentStatusRepository appointmentStatusRepository;
+
+    private volatile Map<AppointmentStatusName, AppointmentStatus> statuses = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        Map<AppointmentStatusName, AppointmentStatus> loaded = new EnumMap<>(AppointmentStatusName.class);
+
+        for (AppointmentStatus status : appointmentStatusRepository.findAll()) {
+            AppointmentStatusName.fromString(status.getName()).ifPresentOrElse(
+                    name -> loaded.put(name, new AppointmentStatus(status.getStatusId(), status.getName(), null)),
+                    () -> log.warn("Ignoring unknown appointment status '{}'", status.getName()));
+        }
+
+        statuses = Collections.unmodifiableMap(loaded);
+        log.info("Appointment status registry loaded with {} statuses", loaded.size());
+    }
+
+    /**
+     * Detached status reference, safe to set on any appointment
+     */
+    public AppointmentStatus get(AppointmentStatusName name) {
+        AppointmentStatus status = statuses.get(name);
+        if (status == null) {
+            // The row may have been seeded after startup
+            refresh();
+            status = statuses.get(name);
+        }
+        if (status == null) {
+            throw new RuntimeException("Appointment status " + name + " not found");
+        }
+        return status;
+    }
+
+    public Optional<AppointmentStatus> findByName(String name) {
+        return AppointmentStatusName.fromString(name).map(this::get);
+    }
+}
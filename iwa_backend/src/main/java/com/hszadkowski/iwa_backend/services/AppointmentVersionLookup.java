@@ -0,0 +1,52 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.dto.AppointmentVersionDto;
+import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong ETags for the appointment listings, computed from one aggregate query instead of the
+ * rows themselves. They are derived only from stored data, so every instance hands out the same
+ * tag for the same content. Tags for per-user responses also cover the requesting user, so a
+ * browser shared by two users never revalidates one user's copy for the other.
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentVersionLookup {
+
+    private final AppointmentRepository appointmentRepository;
+    private final ServiceCatalogCache serviceCatalogCache;
+
+    public String allAppointments() {
+        return etag("all", appointmentRepository.findVersion());
+    }
+
+    public String appointmentsOf(String userEmail) {
+        return etag("user:" + userEmail, appointmentRepository.findVersionByAppUserEmail(userEmail));
+    }
+
+    public String appointment(Integer appointmentId, String userEmail) {
+        return etag("appointment:" + appointmentId + ":user:" + userEmail,
+                appointmentRepository.findVersionById(appointmentId));
+    }
+
+    // Helper methods
+
+    // Service names and prices are part of every listing, so the catalog version is mixed in
+    private String etag(String scope, AppointmentVersionDto version) {
+        String source = scope + "|" + version.getCount() + "|" + version.getLastUpdatedAt()
+                + "|" + serviceCatalogCache.getETag();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to compute appointment ETag", e);
+        }
+    }
+}
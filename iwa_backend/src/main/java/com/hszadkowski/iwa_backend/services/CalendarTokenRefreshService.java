@@ -5,52 +5,82 @@ import com.hszadkowski.iwa_backend.repos.CalendarTokenRepository;
 import com.hszadkowski.iwa_backend.services.interfaces.GoogleCalendarService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CalendarTokenRefreshService {
 
+    private static final String PROVIDER_GOOGLE = "google";
+    private static final int PAGE_SIZE = 100;
+
     private final CalendarTokenRepository calendarTokenRepository;
     private final GoogleCalendarService googleCalendarService;
 
+    // Caps how fast refreshes are started; concurrency is further capped by OutboundCallLimiter
+    @Value("${calendar.token-refresh.max-per-second:5}")
+    private int maxRefreshesPerSecond;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleUnscheduledRefreshes() {
+        int scheduled = calendarTokenRepository.scheduleUnscheduledRefreshes();
+        if (scheduled > 0) {
+            log.info("Scheduled refresh for {} Google Calendar tokens", scheduled);
+        }
+    }
+
     /**
-     * Runs every hour to check and refresh expiring Google Calendar tokens
+     * Refreshes tokens whose own jittered refresh time has passed. The schedule lives on the token
+     * rows, so polling often keeps each batch small and a restart picks up where it left off.
      */
-    @Scheduled(cron = "0 0 * * * *") // Every hour at minute 0
-    public void refreshExpiringTokens() {
-        log.info("Starting scheduled Google Calendar token refresh...");
-
+    @Scheduled(fixedDelayString = "${calendar.token-refresh.poll-interval-ms:30000}")
+    public void refreshDueTokens() {
         try {
-            // Find tokens that expire within the next 2 hours
-            LocalDateTime expirationThreshold = LocalDateTime.now().plusHours(2);
-
-            List<CalendarToken> expiringTokens = calendarTokenRepository.findAll()
-                    .stream()
-                    .filter(token -> "google".equals(token.getProvider()))
-                    .filter(token -> token.getExpiresAt().isBefore(expirationThreshold))
-                    .toList();
-
-            log.info("Found {} Google Calendar tokens expiring within 2 hours", expiringTokens.size());
-
-            for (CalendarToken token : expiringTokens) {
-                try {
-                    String userEmail = token.getAppUser().getEmail();
-                    googleCalendarService.refreshAccessTokenIfNeeded(userEmail);
-                    log.info("Successfully refreshed Google Calendar token for user: {}", userEmail);
-                } catch (Exception e) {
-                    log.error("Failed to refresh Google Calendar token for user {}: {}",
-                            token.getAppUser().getEmail(), e.getMessage());
-                    // Token will be removed by the service if refresh fails
+            long startIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxRefreshesPerSecond);
+            long nextStart = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+
+            AtomicInteger refreshed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            int afterId = 0;
+            List<CalendarToken> page;
+
+            do {
+                page = calendarTokenRepository.findDueForRefreshPage(
+                        PROVIDER_GOOGLE, now, afterId, Limit.of(PAGE_SIZE));
+
+                // Closing the executor waits for the page, so at most one page is in flight
+                try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (CalendarToken token : page) {
+                        LockSupport.parkNanos(nextStart - System.nanoTime());
+                        nextStart = Math.max(nextStart, System.nanoTime()) + startIntervalNanos;
+
+                        executor.submit(() -> refresh(token, refreshed, failed));
+                    }
                 }
-            }
 
-            log.info("Completed scheduled Google Calendar token refresh");
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getTokenId();
+                }
+            } while (page.size() == PAGE_SIZE);
+
+            if (refreshed.get() > 0 || failed.get() > 0) {
+                log.info("Refreshed {} Google Calendar tokens, {} failed", refreshed.get(), failed.get());
+            }
 
         } catch (Exception e) {
             log.error("Error during scheduled token refresh: {}", e.getMessage(), e);
@@ -66,30 +96,25 @@ public class CalendarTokenRefreshService {
         log.info("Starting cleanup of expired Google Calendar tokens...");
 
         try {
-            LocalDateTime now = LocalDateTime.now();
-
-            List<CalendarToken> expiredTokens = calendarTokenRepository.findAll()
-                    .stream()
-                    .filter(token -> "google".equals(token.getProvider()))
-                    .filter(token -> token.getExpiresAt().isBefore(now))
-                    .toList();
-
-            log.info("Found {} expired Google Calendar tokens to clean up", expiredTokens.size());
-
-            for (CalendarToken token : expiredTokens) {
-                try {
-                    calendarTokenRepository.delete(token);
-                    log.info("Cleaned up expired token for user: {}", token.getAppUser().getEmail());
-                } catch (Exception e) {
-                    log.error("Failed to clean up expired token for user {}: {}",
-                            token.getAppUser().getEmail(), e.getMessage());
-                }
-            }
+            int deleted = calendarTokenRepository.deleteExpiredBefore(PROVIDER_GOOGLE, LocalDateTime.now());
+            log.info("Cleaned up {} expired Google Calendar tokens", deleted);
+        } catch (Exception e) {
+            log.error("Error during expired token cleanup: {}", e.getMessage(), e);
+        }
+    }
 
-            log.info("Completed cleanup of expired Google Calendar tokens");
+    // Helper methods
 
+    private void refresh(CalendarToken token, AtomicInteger refreshed, AtomicInteger failed) {
+        String userEmail = token.getAppUser().getEmail();
+        try {
+            googleCalendarService.refreshAccessToken(token);
+            refreshed.incrementAndGet();
+            log.debug("Refreshed Google Calendar token for user: {}", userEmail);
         } catch (Exception e) {
-            log.error("Error during expired token cleanup: {}", e.getMessage(), e);
+            failed.incrementAndGet();
+            log.error("Failed to refresh Google Calendar token for user {}: {}", userEmail, e.getMessage());
+            // Token will be removed by the service if refresh fails
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,167 @@
+package com.hszadkowski.iwa_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the HTML emails under classpath:templates/email. Templates are parsed once at startup
+ * into a flat list of segments, so a render is a single pass appending into a buffer sized for
+ * that template. Supported syntax is a small Mustache subset:
+ * <ul>
+ *     <li>{@code {{name}}} - the value, HTML-escaped</li>
+ *     <li>{@code {{#name}}...{{/name}}} - rendered when the value is present (not null, false or blank)</li>
+ *     <li>{@code {{^name}}...{{/name}}} - rendered when it is not</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class EmailTemplateEngine {
+
+    private static final String TEMPLATE_LOCATION = "classpath:templates/email/*.html";
+    // Headroom over the literal text for the values filled in
+    private static final int VALUE_ALLOWANCE = 512;
+
+    private final Map<String, CompiledTemplate> templates = new HashMap<>();
+
+    public EmailTemplateEngine() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_LOCATION);
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            String name = filename.substring(0, filename.length() - ".html".length());
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            templates.put(name, compile(name, source));
+        }
+        log.info("Compiled {} email templates", templates.size());
+    }
+
+    public String render(String templateName, Map<String, ?> model) {
+        CompiledTemplate template = templates.get(templateName);
+        if (template == null) {
+            throw new RuntimeException("Email template not found: " + templateName);
+        }
+
+        StringBuilder out = new StringBuilder(template.literalLength() + VALUE_ALLOWANCE);
+        renderSegments(template.segments(), model, out);
+        return out.toString();
+    }
+
+    // Helper methods
+
+    private CompiledTemplate compile(String name, String source) {
+        Deque<Section> open = new ArrayDeque<>();
+        List<Segment> root = new ArrayList<>();
+        List<Segment> current = root;
+        int literalLength = 0;
+        int position = 0;
+
+        while (position < source.length()) {
+            int tagStart = source.indexOf("{{", position);
+            if (tagStart < 0) {
+                tagStart = source.length();
+            }
+            if (tagStart > position) {
+                String literal = source.substring(position, tagStart);
+                current.add(new Literal(literal));
+                literalLength += literal.length();
+            }
+            if (tagStart == source.length()) {
+                break;
+            }
+
+            int tagEnd = source.indexOf("}}", tagStart);
+            if (tagEnd < 0) {
+                throw new RuntimeException("Unclosed tag in email template " + name + " at offset " + tagStart);
+            }
+            String tag = source.substring(tagStart + 2, tagEnd).trim();
+            position = tagEnd + 2;
+
+            char kind = tag.isEmpty() ? ' ' : tag.charAt(0);
+            if (kind == '#' || kind == '^') {
+                Section section = new Section(tag.substring(1).trim(), kind == '^', new ArrayList<>());
+                current.add(section);
+                open.push(section);
+                current = section.segments();
+            } else if (kind == '/') {
+                String closing = tag.substring(1).trim();
+                if (open.isEmpty() || !open.peek().name().equals(closing)) {
+                    throw new RuntimeException("Unexpected {{/" + closing + "}} in email template " + name);
+                }
+                open.pop();
+                current = open.isEmpty() ? root : open.peek().segments();
+            } else {
+                current.add(new Variable(tag));
+            }
+        }
+
+        if (!open.isEmpty()) {
+            throw new RuntimeException("Unclosed section {{#" + open.peek().name() + "}} in email template " + name);
+        }
+        return new CompiledTemplate(List.copyOf(root), literalLength);
+    }
+
+    private void renderSegments(List<Segment> segments, Map<String, ?> model, StringBuilder out) {
+        for (Segment segment : segments) {
+            switch (segment) {
+                case Literal literal -> out.append(literal.text());
+                case Variable variable -> {
+                    Object value = model.get(variable.name());
+                    if (value != null) {
+                        appendEscaped(value.toString(), out);
+                    }
+                }
+                case Section section -> {
+                    if (isPresent(model.get(section.name())) != section.inverted()) {
+                        renderSegments(section.segments(), model, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isPresent(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return false;
+        }
+        return !(value instanceof String text) || !text.isBlank();
+    }
+
+    private static void appendEscaped(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private sealed interface Segment permits Literal, Variable, Section {
+    }
+
+    private record Literal(String text) implements Segment {
+    }
+
+    private record Variable(String name) implements Segment {
+    }
+
+    private record Section(String name, boolean inverted, List<Segment> segments) implements Segment {
+    }
+
+    private record CompiledTemplate(List<Segment> segments, int literalLength) {
+    }
+}
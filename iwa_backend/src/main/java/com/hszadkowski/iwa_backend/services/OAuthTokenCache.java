@@ -0,0 +1,79 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter.OutboundProvider;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of access token validations and profile lookups for the social login
+ * providers, so repeated logins with the same token do not call the provider again. Only
+ * positive results are cached, so a rejected token is re-checked on the next attempt.
+ */
+@Service
+public class OAuthTokenCache {
+
+    private static final Duration VALIDATION_TTL = Duration.ofMinutes(5);
+    private static final long MAX_CACHED_TOKENS = 10_000;
+
+    // Starts each lookup on its own virtual thread so it can overlap with token validation
+    private static final Executor LOOKUP_EXECUTOR = runnable -> Thread.ofVirtual().name("oauth-lookup").start(runnable);
+
+    private final Cache<String, Instant> validatedTokens = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfterWrite(VALIDATION_TTL)
+            .build();
+
+    private final Cache<String, Object> profiles = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfterWrite(VALIDATION_TTL)
+            .build();
+
+    public boolean isValidated(OutboundProvider provider, String accessToken) {
+        Instant validUntil = validatedTokens.getIfPresent(cacheKey(provider, accessToken));
+        return validUntil != null && Instant.now().isBefore(validUntil);
+    }
+
+    /**
+     * Remembers a token the provider accepted, until it expires but for no longer than the cache TTL
+     */
+    public void markValidated(OutboundProvider provider, String accessToken, Instant tokenExpiry) {
+        Instant cacheLimit = Instant.now().plus(VALIDATION_TTL);
+        Instant validUntil = tokenExpiry != null && tokenExpiry.isBefore(cacheLimit) ? tokenExpiry : cacheLimit;
+        validatedTokens.put(cacheKey(provider, accessToken), validUntil);
+    }
+
+    public <T> T getProfile(OutboundProvider provider, String accessToken, Class<T> type) {
+        return type.cast(profiles.getIfPresent(cacheKey(provider, accessToken)));
+    }
+
+    public void putProfile(OutboundProvider provider, String accessToken, Object profile) {
+        profiles.put(cacheKey(provider, accessToken), profile);
+    }
+
+    public <T> CompletableFuture<T> lookupAsync(Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(lookup, LOOKUP_EXECUTOR);
+    }
+
+    // Helper methods
+
+    // Tokens are cached by digest so raw access tokens are not kept in memory
+    private static String cacheKey(OutboundProvider provider, String accessToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return provider + ":" + HexFormat.of().formatHex(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
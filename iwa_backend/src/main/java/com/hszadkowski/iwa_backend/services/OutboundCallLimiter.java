@@ -0,0 +1,72 @@
+package com.hszadkowski.iwa_backend.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent blocking calls per external provider. Request handling runs on virtual threads,
+ * so nothing else bounds how many requests wait on a slow upstream at once; without a cap they
+ * would pile up holding JDBC connections (calendar calls run inside transactions) and pin carrier
+ * threads (Jakarta Mail writes to the socket inside synchronized blocks).
+ */
+@Service
+public class OutboundCallLimiter {
+
+    public enum OutboundProvider {
+        SMTP,
+        GOOGLE,
+        FACEBOOK
+    }
+
+    @FunctionalInterface
+    public interface BlockingCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private final Map<OutboundProvider, Semaphore> permits = new EnumMap<>(OutboundProvider.class);
+    private final long acquireTimeoutMs;
+
+    public OutboundCallLimiter(@Value("${outbound.smtp.max-concurrent-calls:2}") int smtpPermits,
+                               @Value("${outbound.google.max-concurrent-calls:6}") int googlePermits,
+                               @Value("${outbound.facebook.max-concurrent-calls:16}") int facebookPermits,
+                               @Value("${outbound.acquire-timeout-ms:10000}") long acquireTimeoutMs,
+                               MeterRegistry meterRegistry) {
+        permits.put(OutboundProvider.SMTP, new Semaphore(smtpPermits, true));
+        permits.put(OutboundProvider.GOOGLE, new Semaphore(googlePermits, true));
+        permits.put(OutboundProvider.FACEBOOK, new Semaphore(facebookPermits, true));
+        this.acquireTimeoutMs = acquireTimeoutMs;
+
+        permits.forEach((provider, semaphore) -> Gauge.builder("outbound.calls.available", semaphore,
+                        Semaphore::availablePermits)
+                .tag("provider", provider.name().toLowerCase())
+                .register(meterRegistry));
+    }
+
+    /**
+     * Runs the call once a permit for the provider is free, failing fast if none frees up in time
+     */
+    public <T, E extends Exception> T call(OutboundProvider provider, BlockingCall<T, E> call) throws E {
+        Semaphore semaphore = permits.get(provider);
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Too many concurrent " + provider + " calls, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a " + provider + " call permit", e);
+        }
+
+        try {
+            return call.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+}
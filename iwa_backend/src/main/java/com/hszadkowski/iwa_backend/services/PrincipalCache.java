@@ -0,0 +1,37 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of user details for JWT-authenticated requests, so that each API call
+ * does not need a user lookup. Entries must be evicted when a user's role, enabled flag
+ * or password changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private static final long MAX_ENTRIES = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final MakeUpUserDetailsService makeUpUserDetailsService;
+
+    private final Cache<String, UserDetails> principals = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .build();
+
+    public UserDetails getPrincipal(String email) {
+        return principals.get(email, makeUpUserDetailsService::loadUserByUsername);
+    }
+
+    public void evict(String email) {
+        principals.invalidate(email);
+    }
+}
@@ -0,0 +1,98 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.events.ServiceCatalogChangedEvent;
+import com.hszadkowski.iwa_backend.events.SlotAvailabilityChangedEvent;
+import com.hszadkowski.iwa_backend.events.SlotsGeneratedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for listings that clients poll, used as strong ETags and Last-Modified values
+ * so unchanged listings can be answered with 304 before any data is read. Counters are bumped
+ * after the change commits and after the availability index has applied it, so a response body
+ * is never older than the version it was tagged with. Only availability is tracked here, since it
+ * is served from this instance's index; appointment versions come from the database, see
+ * {@link AppointmentVersionLookup}.
+ */
+@Service
+public class ResourceVersionTracker {
+
+    public enum VersionedResource {
+        AVAILABILITY
+    }
+
+    public record ResourceVersion(String etag, long lastModified) {
+    }
+
+    // Makes ETags from a previous run of the application never match
+    private final long epoch = System.currentTimeMillis();
+    private final Map<VersionedResource, Counter> counters = new EnumMap<>(VersionedResource.class);
+
+    public ResourceVersionTracker() {
+        for (VersionedResource resource : VersionedResource.values()) {
+            counters.put(resource, new Counter(epoch));
+        }
+    }
+
+    /**
+     * Open availability also changes as slots start, so its version rolls over every minute
+     */
+    public ResourceVersion current(VersionedResource resource) {
+        Counter counter = counters.get(resource);
+        long version = counter.version.get();
+        long lastModified = counter.lastModified;
+        String etag = "\"" + Long.toHexString(epoch) + "-" + version;
+
+        if (resource == VersionedResource.AVAILABILITY) {
+            Instant minute = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+            etag += "-" + Long.toHexString(minute.getEpochSecond() / 60);
+            lastModified = Math.max(lastModified, minute.toEpochMilli());
+        }
+
+        return new ResourceVersion(etag + "\"", lastModified);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onSlotChanged(SlotAvailabilityChangedEvent event) {
+        bump(VersionedResource.AVAILABILITY);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onSlotsGenerated(SlotsGeneratedEvent event) {
+        bump(VersionedResource.AVAILABILITY);
+    }
+
+    // Service names are part of the listing
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onServiceChanged(ServiceCatalogChangedEvent event) {
+        bump(VersionedResource.AVAILABILITY);
+    }
+
+    // Helper methods
+
+    private void bump(VersionedResource resource) {
+        Counter counter = counters.get(resource);
+        counter.lastModified = System.currentTimeMillis();
+        counter.version.incrementAndGet();
+    }
+
+    private static final class Counter {
+        private final AtomicLong version = new AtomicLong();
+        private volatile long lastModified;
+
+        private Counter(long lastModified) {
+            this.lastModified = lastModified;
+        }
+    }
+}
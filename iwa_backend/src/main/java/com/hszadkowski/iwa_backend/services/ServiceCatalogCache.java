@@ -0,0 +1,131 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hszadkowski.iwa_backend.dto.ServiceResponseDto;
+import com.hszadkowski.iwa_backend.events.ServiceCatalogChangedEvent;
+import com.hszadkowski.iwa_backend.models.Service;
+import com.hszadkowski.iwa_backend.repos.ServiceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through, in-process copy of the service catalog. The whole catalog is loaded on the first
+ * read after a change and dropped once a create/update/delete commits, so page views never hit
+ * the database while the catalog is unchanged.
+ */
+@org.springframework.stereotype.Service
+@Slf4j
+public class ServiceCatalogCache {
+
+    private final ServiceRepository serviceRepository;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Bumped on every change so a load that raced with a change is not kept
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Catalog catalog;
+
+    public ServiceCatalogCache(ServiceRepository serviceRepository, ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.serviceRepository = serviceRepository;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("service.catalog.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("service.catalog.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public List<ServiceResponseDto> getAll() {
+        return getCatalog().services();
+    }
+
+    public ServiceResponseDto get(Integer serviceId) {
+        return getCatalog().servicesById().get(serviceId);
+    }
+
+    public boolean contains(Integer serviceId) {
+        return getCatalog().servicesById().containsKey(serviceId);
+    }
+
+    /**
+     * Strong ETag derived from the catalog content, stable across restarts and instances
+     */
+    public String getETag() {
+        return getCatalog().etag();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onServiceChanged(ServiceCatalogChangedEvent event) {
+        generation.incrementAndGet();
+        catalog = null;
+    }
+
+    // Helper methods
+
+    private Catalog getCatalog() {
+        Catalog current = catalog;
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+
+        misses.increment();
+        long loadedGeneration = generation.get();
+        Catalog loaded = load();
+
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                catalog = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private Catalog load() {
+        Map<Integer, ServiceResponseDto> servicesById = new LinkedHashMap<>();
+        for (Service service : serviceRepository.findAll()) {
+            servicesById.put(service.getServiceId(), new ServiceResponseDto(
+                    service.getServiceId(),
+                    service.getName(),
+                    service.getDescription(),
+                    service.getDurationMin(),
+                    service.getPrice()
+            ));
+        }
+
+        List<ServiceResponseDto> services = List.copyOf(servicesById.values());
+        String etag = "\"" + digest(services) + "\"";
+        log.debug("Service catalog loaded with {} services", services.size());
+
+        return new Catalog(services, Map.copyOf(servicesById), etag);
+    }
+
+    // SHA-256 of the catalog as served, so equal tags mean byte-identical responses
+    private String digest(List<ServiceResponseDto> services) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(services);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to compute service catalog ETag", e);
+        }
+    }
+
+    private record Catalog(List<ServiceResponseDto> services,
+                           Map<Integer, ServiceResponseDto> servicesById,
+                           String etag) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.dto.AvailabilitySlotResponseDto;
+import com.hszadkowski.iwa_backend.events.ServiceCatalogChangedEvent;
+import com.hszadkowski.iwa_backend.events.SlotAvailabilityChangedEvent;
+import com.hszadkowski.iwa_backend.events.SlotChangeType;
+import com.hszadkowski.iwa_backend.events.SlotsGeneratedEvent;
+import com.hszadkowski.iwa_backend.models.AvailabilitySlot;
+import com.hszadkowski.iwa_backend.repos.AvailabilitySlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory, start-time ordered view of open (unbooked, future) availability slots per service.
+ * Warmed at startup and kept in sync by slot events after their transaction commits, so public
+ * availability browsing does not need to hit the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotAvailabilityIndex {
+
+    private static final Comparator<SlotKey> SLOT_ORDER =
+            Comparator.comparing(SlotKey::startTime).thenComparingInt(SlotKey::slotId);
+
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+
+    private final Map<Integer, ConcurrentSkipListMap<SlotKey, AvailabilitySlotResponseDto>> openSlotsByService =
+            new ConcurrentHashMap<>();
+    private final Map<Integer, IndexedSlot> slotsById = new ConcurrentHashMap<>();
+    // Serializes writers, including the database read behind each upsert. A lock rather than
+    // synchronized, so virtual threads waiting on that read do not pin their carrier.
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        withWriteLock(() -> availabilitySlotRepository
+                .findByIsBookedFalseAndStartTimeAfter(LocalDateTime.now())
+                .forEach(this::upsert));
+        log.info("Slot availability index warmed with {} open slots", slotsById.size());
+    }
+
+    /**
+     * Open slots starting within [startTime, endTime], ordered by start time
+     */
+    public List<AvailabilitySlotResponseDto> findOpenSlots(Integer serviceId, LocalDateTime startTime,
+                                                           LocalDateTime endTime) {
+        LocalDateTime now = LocalDateTime.now();
+        SlotKey from = new SlotKey(startTime, Integer.MIN_VALUE);
+        SlotKey to = new SlotKey(endTime, Integer.MAX_VALUE);
+
+        if (serviceId != null) {
+            ConcurrentSkipListMap<SlotKey, AvailabilitySlotResponseDto> slots = openSlotsByService.get(serviceId);
+            return slots == null ? List.of() : collectFuture(slots.subMap(from, true, to, true), now);
+        }
+
+        List<AvailabilitySlotResponseDto> result = new ArrayList<>();
+        for (ConcurrentSkipListMap<SlotKey, AvailabilitySlotResponseDto> slots : openSlotsByService.values()) {
+            result.addAll(collectFuture(slots.subMap(from, true, to, true), now));
+        }
+        result.sort(Comparator.comparing(AvailabilitySlotResponseDto::getStartTime)
+                .thenComparing(AvailabilitySlotResponseDto::getSlotId));
+        return result;
+    }
+
+    public Optional<AvailabilitySlotResponseDto> findOpenSlot(Integer slotId) {
+        IndexedSlot indexed = slotsById.get(slotId);
+        if (indexed == null) {
+            return Optional.empty();
+        }
+        ConcurrentSkipListMap<SlotKey, AvailabilitySlotResponseDto> slots = openSlotsByService.get(indexed.serviceId());
+        return slots == null ? Optional.empty() : Optional.ofNullable(slots.get(indexed.key()));
+    }
+
+    // Reads in a fresh transaction so it sees committed rows rather than the publisher's persistence context.
+    // Runs before other listeners so version counters are only bumped once the index reflects the change.
+    // The read happens under the write lock: a booking that commits after it waits for the upsert and
+    // removes the slot afterwards, instead of the upsert putting back a slot that is already taken.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onSlotChanged(SlotAvailabilityChangedEvent event) {
+        if (event.getChangeType() == SlotChangeType.BOOKED || event.getChangeType() == SlotChangeType.DELETED) {
+            remove(event.getSlotId());
+            return;
+        }
+
+        withWriteLock(() -> availabilitySlotRepository.findById(event.getSlotId())
+                .ifPresentOrElse(this::upsert, () -> remove(event.getSlotId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onServiceChanged(ServiceCatalogChangedEvent event) {
+        withWriteLock(() -> {
+            ConcurrentSkipListMap<SlotKey, AvailabilitySlotResponseDto> slots =
+                    openSlotsByService.remove(event.getServiceId());
+            if (slots != null) {
+                slots.values().forEach(slot -> slotsById.remove(slot.getSlotId()));
+            }
+
+            if (!event.isDeleted()) {
+                reloadService(event.getServiceId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onSlotsGenerated(SlotsGeneratedEvent event) {
+        withWriteLock(() -> reloadService(event.getServiceId()));
+    }
+
+    /**
+     * Runs every hour to drop slots whose start time has passed
+     */
+    @Scheduled(cron = "0 5 * * * *")
+    public void evictPastSlots() {
+        withWriteLock(() -> {
+            SlotKey cutoff = new SlotKey(LocalDateTime.now(), Integer.MAX_VALUE);
+            for (ConcurrentSkipListMap<SlotKey, AvailabilitySlotResponseDto> slots : openSlotsByService.values()) {
+                NavigableMap<SlotKey, AvailabilitySlotResponseDto> past = slots.headMap(cutoff, true);
+                past.keySet().forEach(key -> slotsById.remove(key.slotId()));
+                past.clear();
+            }
+        });
+    }
+
+    // Helper methods
+
+    private void withWriteLock(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reloadService(Integer serviceId) {
+        availabilitySlotRepository
+                .findByServiceServiceIdAndIsBookedFalseAndStartTimeAfter(serviceId, LocalDateTime.now())
+                .forEach(this::upsert);
+    }
+
+    // Callers hold the write lock
+    private void upsert(AvailabilitySlot slot) {
+        remove(slot.getSlotId());
+
+        if (slot.getIsBooked() || !slot.getStartTime().isAfter(LocalDateTime.now())) {
+            return;
+        }
+
+        Integer serviceId = slot.getService().getServiceId();
+        SlotKey key = new SlotKey(slot.getStartTime(), slot.getSlotId());
+        AvailabilitySlotResponseDto dto = new AvailabilitySlotResponseDto(
+                slot.getSlotId(),
+                serviceId,
+                slot.getService().getName(),
+                slot.getStartTime(),
+                slot.getEndTime(),
+                false
+        );
+
+        openSlotsByService.computeIfAbsent(serviceId, id -> new ConcurrentSkipListMap<>(SLOT_ORDER)).put(key, dto);
+        slotsById.put(slot.getSlotId(), new IndexedSlot(serviceId, key));
+    }
+
+    private void remove(Integer slotId) {
+        withWriteLock(() -> {
+            IndexedSlot indexed = slotsById.remove(slotId);
+            if (indexed != null) {
+                ConcurrentSkipListMap<SlotKey, AvailabilitySlotResponseDto> slots =
+                        openSlotsByService.get(indexed.serviceId());
+                if (slots != null) {
+                    slots.remove(indexed.key());
+                }
+            }
+        });
+    }
+
+    private List<AvailabilitySlotResponseDto> collectFuture(NavigableMap<SlotKey, AvailabilitySlotResponseDto> range,
+                                                            LocalDateTime now) {
+        List<AvailabilitySlotResponseDto> result = new ArrayList<>();
+        for (Map.Entry<SlotKey, AvailabilitySlotResponseDto> entry : range.entrySet()) {
+            if (entry.getKey().startTime().isAfter(now)) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private record SlotKey(LocalDateTime startTime, int slotId) {
+    }
+
+    private record IndexedSlot(Integer serviceId, SlotKey key) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.dto.AvailabilitySlotResponseDto;
+import com.hszadkowski.iwa_backend.dto.SlotChangeDto;
+import com.hszadkowski.iwa_backend.events.ServiceCatalogChangedEvent;
+import com.hszadkowski.iwa_backend.events.SlotAvailabilityChangedEvent;
+import com.hszadkowski.iwa_backend.events.SlotChangeType;
+import com.hszadkowski.iwa_backend.events.SlotsGeneratedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans slot availability deltas out to Server-Sent Events subscribers. Each subscriber has a
+ * bounded queue drained by its own virtual thread, so idle connections cost no platform thread
+ * and a slow client never holds up the committing transaction or other clients.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotChangeStreamHub {
+
+    public static final String SLOT_CHANGE_EVENT = "slot-change";
+    // Tells the client it missed deltas and has to refetch the listing
+    public static final String RESET_EVENT = "reset";
+
+    private static final long STREAM_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final long HEARTBEAT_INTERVAL_MS = Duration.ofSeconds(25).toMillis();
+    private static final int BACKLOG_SIZE = 256;
+
+    private static final ThreadFactory WORKER_FACTORY = Thread.ofVirtual().name("slot-stream-", 0).factory();
+
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Event ids are prefixed with the start time, so ids from a previous run are never replayed
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+    private final Deque<Delta> recentDeltas = new ArrayDeque<>();
+    private long lastSequence;
+
+    /**
+     * Opens a stream, optionally limited to one service. When the client reconnects with the
+     * id of the last event it saw, the deltas it missed are replayed or a reset is sent.
+     */
+    public SseEmitter subscribe(Integer serviceId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, serviceId);
+        subscriber.worker = WORKER_FACTORY.newThread(subscriber::drain);
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                replayMissed(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        subscriber.worker.start();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Runs after the availability index, so open slots can be read from it without a query
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotChanged(SlotAvailabilityChangedEvent event) {
+        AvailabilitySlotResponseDto slot = null;
+        if (event.getChangeType() != SlotChangeType.BOOKED && event.getChangeType() != SlotChangeType.DELETED) {
+            slot = slotAvailabilityIndex.findOpenSlot(event.getSlotId()).orElse(null);
+        }
+
+        SlotChangeDto change = new SlotChangeDto(event.getSlotId(), event.getChangeType(), slot);
+        publish(change, event.getServiceId());
+    }
+
+    // Service names are embedded in every open slot, so clients refetch instead of patching them
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServiceChanged(ServiceCatalogChangedEvent event) {
+        publish(null, null);
+    }
+
+    // Too many deltas to be worth sending one by one; only the service's subscribers refetch
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotsGenerated(SlotsGeneratedEvent event) {
+        publish(null, event.getServiceId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> {
+            subscriber.worker.interrupt();
+            subscriber.emitter.complete();
+        });
+        subscribers.clear();
+    }
+
+    // Helper methods
+
+    // A null change is a reset; a reset with a null service id reaches every subscriber
+    private synchronized void publish(SlotChangeDto change, Integer serviceId) {
+        Delta delta = new Delta(++lastSequence, change, serviceId);
+        recentDeltas.addLast(delta);
+        if (recentDeltas.size() > BACKLOG_SIZE) {
+            recentDeltas.removeFirst();
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(delta)) {
+                log.debug("Dropping slot stream subscriber that fell {} events behind", BACKLOG_SIZE);
+                close(subscriber);
+            }
+        }
+    }
+
+    private void replayMissed(Subscriber subscriber, String lastEventId) {
+        long lastSeen = parseSequence(lastEventId);
+        Delta oldest = recentDeltas.peekFirst();
+        long oldestSequence = oldest != null ? oldest.sequence() : lastSequence + 1;
+
+        if (lastSeen < 0 || lastSeen > lastSequence || lastSeen < oldestSequence - 1) {
+            subscriber.offer(new Delta(lastSequence, null, null));
+            return;
+        }
+        for (Delta delta : recentDeltas) {
+            if (delta.sequence() > lastSeen) {
+                subscriber.offer(delta);
+            }
+        }
+    }
+
+    private long parseSequence(String eventId) {
+        int separator = eventId.indexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.worker.interrupt();
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(Delta delta) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().id(epoch + "-" + delta.sequence());
+        if (delta.change() == null) {
+            return event.name(RESET_EVENT).data(RESET_EVENT);
+        }
+        return event.name(SLOT_CHANGE_EVENT).data(delta.change(), MediaType.APPLICATION_JSON);
+    }
+
+    private record Delta(long sequence, SlotChangeDto change, Integer serviceId) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Integer serviceId;
+        private final BlockingQueue<Delta> queue = new ArrayBlockingQueue<>(BACKLOG_SIZE);
+        private Thread worker;
+
+        private Subscriber(SseEmitter emitter, Integer serviceId) {
+            this.emitter = emitter;
+            this.serviceId = serviceId;
+        }
+
+        private boolean offer(Delta delta) {
+            if (serviceId != null && delta.serviceId() != null && !serviceId.equals(delta.serviceId())) {
+                return true;
+            }
+            return queue.offer(delta);
+        }
+
+        // Blocks only this subscriber's virtual thread, sending a comment line when idle to detect dead clients
+        private void drain() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Delta delta = queue.poll(HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (delta == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        emitter.send(toSseEvent(delta));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Slot stream subscriber disconnected: {}", e.getMessage());
+            } finally {
+                subscribers.remove(this);
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException ignored) {
+                    // Already completed by the container
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter.OutboundProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends mail over a small set of long-lived, authenticated SMTP connections. Each connection is
+ * owned by one virtual-thread worker that drains queued messages in batches, so a burst of mail
+ * pays the TCP + STARTTLS + AUTH handshake once per connection rather than once per message.
+ * Connections idle for longer than the idle timeout are closed and reopened on demand, and a
+ * connection the server dropped is replaced by the send that fails on it.
+ */
+@Service
+@Slf4j
+public class SmtpMailDispatcher {
+
+    private final JavaMailSenderImpl mailSender;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final int batchSize;
+    private final long idleTimeoutMs;
+
+    private final BlockingQueue<PendingMail> queue;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter connectionsOpened;
+
+    public SmtpMailDispatcher(JavaMailSenderImpl mailSender,
+                              OutboundCallLimiter outboundCallLimiter,
+                              MeterRegistry meterRegistry,
+                              @Value("${outbound.smtp.max-concurrent-calls:2}") int connections,
+                              @Value("${outbound.smtp.batch-size:20}") int batchSize,
+                              @Value("${outbound.smtp.idle-timeout-ms:30000}") long idleTimeoutMs,
+                              @Value("${outbound.smtp.queue-capacity:1000}") int queueCapacity) {
+        this.mailSender = mailSender;
+        this.outboundCallLimiter = outboundCallLimiter;
+        this.batchSize = batchSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        this.sent = Counter.builder("mail.messages").tag("result", "sent").register(meterRegistry);
+        this.failed = Counter.builder("mail.messages").tag("result", "failed").register(meterRegistry);
+        this.connectionsOpened = Counter.builder("mail.smtp.connections.opened").register(meterRegistry);
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        for (int i = 0; i < Math.max(1, connections); i++) {
+            workers.add(Thread.ofVirtual().name("smtp-worker-" + i).start(this::drain));
+        }
+    }
+
+    /**
+     * Queues the messages and returns one future per message, completed once that message is
+     * accepted by the server or failed with the reason it was not
+     */
+    public List<CompletableFuture<Void>> submit(MimeMessage... messages) {
+        List<CompletableFuture<Void>> results = new ArrayList<>(messages.length);
+        for (MimeMessage message : messages) {
+            PendingMail pending = new PendingMail(message, new CompletableFuture<>());
+            if (!queue.offer(pending)) {
+                pending.result().completeExceptionally(new RuntimeException("Mail queue is full, try again later"));
+            }
+            results.add(pending.result());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    // Helper methods
+
+    private void drain() {
+        Transport transport = null;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                PendingMail first = queue.poll(idleTimeoutMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    transport = close(transport);
+                    continue;
+                }
+
+                List<PendingMail> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                transport = sendBatch(transport, batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(transport);
+            PendingMail pending;
+            while ((pending = queue.poll()) != null) {
+                pending.result().completeExceptionally(new RuntimeException("Mail dispatcher is shutting down"));
+            }
+        }
+    }
+
+    // Returns the connection to keep for the next batch, or null if it had to be dropped
+    private Transport sendBatch(Transport transport, List<PendingMail> batch) {
+        Transport[] current = {transport};
+        try {
+            outboundCallLimiter.call(OutboundProvider.SMTP, () -> {
+                for (PendingMail pending : batch) {
+                    current[0] = send(current[0], pending);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // No call permit: fail whatever is left rather than holding the batch
+            batch.forEach(pending -> fail(pending, e));
+        }
+        return current[0];
+    }
+
+    // The connection is not probed before each message (isConnected() costs a NOOP round trip);
+    // a send that fails on a reused connection that turns out to be gone is retried once on a fresh
+    // one instead. A dropped connection can also surface as a SendFailedException ("[EOF]"), so the
+    // connection state decides, not the exception type.
+    private Transport send(Transport transport, PendingMail pending) {
+        MimeMessage message = pending.message();
+        boolean reused = transport != null;
+        try {
+            if (transport == null) {
+                transport = connect();
+            }
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                if (!reused || transport.isConnected()) {
+                    throw e;
+                }
+                log.debug("Pooled SMTP connection failed, reconnecting: {}", e.getMessage());
+                transport = close(transport);
+                transport = connect();
+                transport.sendMessage(message, message.getAllRecipients());
+            }
+            pending.result().complete(null);
+            sent.increment();
+        } catch (SendFailedException e) {
+            // Rejected recipients leave the connection usable; a dead one is replaced by the next send
+            fail(pending, e);
+        } catch (MessagingException e) {
+            fail(pending, e);
+            transport = close(transport);
+        }
+        return transport;
+    }
+
+    private Transport connect() throws MessagingException {
+        Session session = mailSender.getSession();
+        // Without an explicit protocol the session's mail.transport.protocol applies
+        Transport transport = mailSender.getProtocol() != null
+                ? session.getTransport(mailSender.getProtocol())
+                : session.getTransport();
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        connectionsOpened.increment();
+        return transport;
+    }
+
+    private Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection cleanly: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void fail(PendingMail pending, Exception e) {
+        if (pending.result().completeExceptionally(e)) {
+            failed.increment();
+            log.warn("Failed to send mail: {}", e.getMessage());
+        }
+    }
+
+    private record PendingMail(MimeMessage message, CompletableFuture<Void> result) {
+    }
+}
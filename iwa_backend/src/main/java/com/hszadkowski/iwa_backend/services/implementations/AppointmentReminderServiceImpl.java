@@ -1,112 +1,177 @@
 package com.hszadkowski.iwa_backend.services.implementations;
 
-import com.hszadkowski.iwa_backend.models.Appointment;
-import com.hszadkowski.iwa_backend.models.AppointmentStatus;
+import com.hszadkowski.iwa_backend.dto.AppointmentReminderDto;
+import com.hszadkowski.iwa_backend.models.AppUser;
+import com.hszadkowski.iwa_backend.models.AppointmentStatusName;
+import com.hszadkowski.iwa_backend.models.Notification;
+import com.hszadkowski.iwa_backend.models.NotificationType;
 import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
-import com.hszadkowski.iwa_backend.repos.AppointmentStatusRepository;
+import com.hszadkowski.iwa_backend.repos.NotificationRepository;
+import com.hszadkowski.iwa_backend.services.EmailTemplateEngine;
 import com.hszadkowski.iwa_backend.services.interfaces.AppointmentReminderService;
 import com.hszadkowski.iwa_backend.services.interfaces.EmailService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AppointmentReminderServiceImpl implements AppointmentReminderService {
 
+    private static final int PROGRESS_LOG_INTERVAL = 100;
+
     private final AppointmentRepository appointmentRepository;
+    private final NotificationRepository notificationRepository;
+    private final EntityManager entityManager;
     private final EmailService emailService;
-    private final AppointmentStatusRepository appointmentStatusRepository;
+    private final EmailTemplateEngine emailTemplateEngine;
+    private final int maxParallelSends;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter skipped;
+    private final Timer runTimer;
+
+    public AppointmentReminderServiceImpl(AppointmentRepository appointmentRepository,
+                                          NotificationRepository notificationRepository,
+                                          EntityManager entityManager,
+                                          EmailService emailService,
+                                          EmailTemplateEngine emailTemplateEngine,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${outbound.smtp.max-concurrent-calls:2}") int maxParallelSends) {
+        this.appointmentRepository = appointmentRepository;
+        this.notificationRepository = notificationRepository;
+        this.entityManager = entityManager;
+        this.emailService = emailService;
+        this.emailTemplateEngine = emailTemplateEngine;
+        this.maxParallelSends = maxParallelSends;
+        this.sent = reminderCounter(meterRegistry, "sent");
+        this.failed = reminderCounter(meterRegistry, "failed");
+        this.skipped = reminderCounter(meterRegistry, "skipped");
+        this.runTimer = Timer.builder("appointment.reminders.run").register(meterRegistry);
+    }
 
     /**
-     * Runs every day at 10:00 AM to send reminders for appointments scheduled for tomorrow
+     * Runs every day at 10:00 AM to send reminders for appointments scheduled for tomorrow.
+     * Appointments are read through a cursor and sent in parallel, as many at a time as there are
+     * SMTP call permits. Each reminder is claimed in the notifications table before it is sent, so
+     * a run repeated after a restart only sends what is still missing.
      */
     @Override
     @Scheduled(cron = "0 0 10 * * *") // 10:00 AM daily
+    @Transactional(readOnly = true)
     public void sendDailyReminders() {
         log.info("Starting daily appointment reminder process...");
 
-        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDate today = LocalDate.now();
+        LocalDate tomorrow = today.plusDays(1);
+        Semaphore inFlight = new Semaphore(Math.max(1, maxParallelSends));
+        AtomicInteger processed = new AtomicInteger();
+        Timer.Sample run = Timer.start();
 
-        AppointmentStatus confirmedStatus = appointmentStatusRepository.findByName("CONFIRMED")
-                .orElse(null);
+        try (Stream<AppointmentReminderDto> reminders = appointmentRepository.streamPendingReminders(
+                tomorrow, AppointmentStatusName.CONFIRMED.name(), NotificationType.REMINDER, today);
+             ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
 
-        if (confirmedStatus == null) {
-            log.warn("CONFIRMED status not found in database");
-            return;
+            reminders.forEach(reminder -> {
+                // Backpressure: the cursor only advances when a sender is free
+                inFlight.acquireUninterruptibly();
+                workers.submit(() -> {
+                    try {
+                        sendReminder(reminder, today);
+                    } catch (RuntimeException e) {
+                        // The future is discarded, so this is the only place the failure is seen
+                        failed.increment();
+                        log.error("Failed to process reminder for appointment ID: {}", reminder.getAppointmentId(), e);
+                    } finally {
+                        inFlight.release();
+                        int count = processed.incrementAndGet();
+                        if (count % PROGRESS_LOG_INTERVAL == 0) {
+                            log.info("Processed {} reminders so far", count);
+                        }
+                    }
+                });
+            });
+        } finally {
+            run.stop(runTimer);
         }
 
-        // Find all confirmed appointments for tomorrow using repository method
-        List<Appointment> tomorrowAppointments = appointmentRepository
-                .findByScheduledAtAndStatus(tomorrow, confirmedStatus);
-
-        log.info("Found {} confirmed appointments for tomorrow ({})",
-                tomorrowAppointments.size(), tomorrow);
-
-        for (Appointment appointment : tomorrowAppointments) {
-            try {
-                sendReminderEmail(appointment);
-                log.info("Reminder sent for appointment ID: {}", appointment.getAppointmentId());
-            } catch (Exception e) {
-                log.error("Failed to send reminder for appointment ID: {} - Error: {}",
-                        appointment.getAppointmentId(), e.getMessage());
-            }
-        }
-
-        log.info("Daily reminder process completed");
+        log.info("Daily reminder process completed: {} appointments processed for {}", processed.get(), tomorrow);
     }
 
-    private void sendReminderEmail(Appointment appointment) {
+    // Helper methods
+
+    private void sendReminder(AppointmentReminderDto reminder, LocalDate today) {
+        Notification claim;
         try {
-            String subject = "Reminder: Your appointment is tomorrow - " + appointment.getService().getName();
-            String htmlMessage = buildReminderEmailHtml(appointment);
-            emailService.sendVerificationEmail(appointment.getAppUser().getEmail(), subject, htmlMessage);
+            claim = claimReminder(reminder, today);
+        } catch (DataIntegrityViolationException e) {
+            // Another run already claimed it
+            skipped.increment();
+            return;
+        } catch (RuntimeException e) {
+            // Nothing was claimed, so the next run retries it
+            failed.increment();
+            log.error("Failed to claim reminder for appointment ID: {}", reminder.getAppointmentId(), e);
+            return;
+        }
+
+        try {
+            String subject = "Reminder: Your appointment is tomorrow - " + reminder.getServiceName();
+            String htmlMessage = buildReminderEmailHtml(reminder);
+            emailService.sendVerificationEmail(reminder.getUserEmail(), subject, htmlMessage);
+            sent.increment();
+            log.info("Reminder sent for appointment ID: {}", reminder.getAppointmentId());
         } catch (Exception e) {
-            throw new RuntimeException("Failed to send reminder email", e);
+            // Release the claim so a later run can retry this reminder
+            notificationRepository.delete(claim);
+            failed.increment();
+            log.error("Failed to send reminder for appointment ID: {} - Error: {}",
+                    reminder.getAppointmentId(), e.getMessage());
         }
     }
 
-    private String buildReminderEmailHtml(Appointment appointment) {
-        LocalDateTime appointmentDateTime = appointment.getSlot().getStartTime();
-
-        return "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">🔔 Appointment Reminder</h2>"
-                + "<p style=\"font-size: 16px;\">Hi " + appointment.getAppUser().getName() + ",</p>"
-                + "<p style=\"font-size: 16px;\">This is a friendly reminder that you have an appointment scheduled for <strong>tomorrow</strong>!</p>"
-                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1); border-left: 4px solid #007bff;\">"
-                + "<h3 style=\"color: #333; margin-top: 0;\">Appointment Details:</h3>"
-                + "<p><strong>Service:</strong> " + appointment.getService().getName() + "</p>"
-                + "<p><strong>Date:</strong> " + appointment.getScheduledAt() + "</p>"
-                + "<p><strong>Time:</strong> " + appointmentDateTime.toLocalTime() + "</p>"
-                + "<p><strong>Duration:</strong> " + appointment.getService().getDurationMin() + " minutes</p>"
-                + "<p><strong>Location:</strong> " + appointment.getLocation() + "</p>"
-                + (appointment.getDescription() != null && !appointment.getDescription().trim().isEmpty()
-                ? "<p><strong>Notes:</strong> " + appointment.getDescription() + "</p>" : "")
-                + "</div>"
-                + "<div style=\"background-color: #e3f2fd; padding: 15px; border-radius: 5px; margin-top: 20px;\">"
-                + "<h4 style=\"color: #1976d2; margin-top: 0;\">💡 Preparation Tips:</h4>"
-                + "<ul style=\"color: #333; padding-left: 20px;\">"
-                + "<li>Please arrive 5-10 minutes early</li>"
-                + "<li>Come with a clean face (if applicable)</li>"
-                + "<li>Bring any specific makeup preferences or inspiration photos</li>"
-                + "</ul>"
-                + "</div>"
-                + "<p style=\"font-size: 14px; margin-top: 20px; color: #666;\">"
-                + "Need to reschedule or cancel? Please contact us as soon as possible or use your account dashboard."
-                + "</p>"
-                + "<p style=\"font-size: 14px; color: #666;\">"
-                + "We look forward to seeing you tomorrow!"
-                + "</p>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
+    private Notification claimReminder(AppointmentReminderDto reminder, LocalDate today) {
+        Notification notification = new Notification();
+        notification.setAppUser(entityManager.getReference(AppUser.class, reminder.getUserId()));
+        notification.setAppointment(appointmentRepository.getReferenceById(reminder.getAppointmentId()));
+        notification.setType(NotificationType.REMINDER);
+        notification.setMessage("Reminder for " + reminder.getServiceName() + " on " + reminder.getScheduledAt());
+        notification.setSentAt(today);
+        return notificationRepository.saveAndFlush(notification);
+    }
+
+    private static Counter reminderCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("appointment.reminders")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private String buildReminderEmailHtml(AppointmentReminderDto reminder) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("userName", reminder.getUserName());
+        model.put("serviceName", reminder.getServiceName());
+        model.put("date", reminder.getScheduledAt());
+        model.put("startTime", reminder.getStartTime().toLocalTime());
+        model.put("durationMin", reminder.getServiceDurationMin());
+        model.put("location", reminder.getLocation());
+        model.put("notes", reminder.getDescription());
+        return emailTemplateEngine.render("reminder", model);
     }
 }
@@ -1,28 +1,38 @@
 package com.hszadkowski.iwa_backend.services.implementations;
 
+import com.hszadkowski.iwa_backend.dto.AppointmentPageDto;
 import com.hszadkowski.iwa_backend.dto.AppointmentResponseDto;
 import com.hszadkowski.iwa_backend.dto.BookAppointmentDto;
+import com.hszadkowski.iwa_backend.dto.CalendarBulkSyncResultDto;
+import com.hszadkowski.iwa_backend.dto.GetAppointmentsDto;
 import com.hszadkowski.iwa_backend.dto.RescheduleAppointmentDto;
 import com.hszadkowski.iwa_backend.dto.UpdateAppointmentStatusDto;
+import com.hszadkowski.iwa_backend.events.SlotAvailabilityChangedEvent;
+import com.hszadkowski.iwa_backend.events.SlotChangeType;
 import com.hszadkowski.iwa_backend.exceptions.AppointmentNotFoundException;
 import com.hszadkowski.iwa_backend.models.*;
 import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
-import com.hszadkowski.iwa_backend.repos.AppointmentStatusRepository;
 import com.hszadkowski.iwa_backend.repos.AvailabilitySlotRepository;
 import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.AppointmentStatusRegistry;
+import com.hszadkowski.iwa_backend.services.EmailTemplateEngine;
 import com.hszadkowski.iwa_backend.services.interfaces.AppointmentService;
-import com.hszadkowski.iwa_backend.services.interfaces.AvailabilityService;
-import com.hszadkowski.iwa_backend.services.interfaces.EmailService;
 import com.hszadkowski.iwa_backend.services.interfaces.GoogleCalendarService;
+import com.hszadkowski.iwa_backend.services.interfaces.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @org.springframework.stereotype.Service
 @RequiredArgsConstructor
@@ -32,11 +42,12 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
-    private final AppointmentStatusRepository appointmentStatusRepository;
+    private final AppointmentStatusRegistry appointmentStatusRegistry;
     private final AvailabilitySlotRepository availabilitySlotRepository;
-    private final AvailabilityService availabilityService;
-    private final EmailService emailService;
     private final GoogleCalendarService googleCalendarService;
+    private final OutboxService outboxService;
+    private final EmailTemplateEngine emailTemplateEngine;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public AppointmentResponseDto bookAppointment(BookAppointmentDto request, String userEmail) {
@@ -44,25 +55,24 @@ public class AppointmentServiceImpl implements AppointmentService {
         AppUser user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!availabilityService.canBookSlot(request.getSlotId())) {
+        // Claim the slot with a single conditional UPDATE so concurrent bookings cannot both win it
+        if (availabilitySlotRepository.reserveSlot(request.getSlotId(), LocalDateTime.now()) == 0) {
             throw new RuntimeException("This time slot is no longer available or has already passed");
         }
 
         AvailabilitySlot slot = availabilitySlotRepository.findById(request.getSlotId())
                 .orElseThrow(() -> new RuntimeException("Availability slot not found"));
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                slot.getSlotId(), slot.getService().getServiceId(), SlotChangeType.BOOKED));
 
-        if (slot.getIsBooked()) {
-            throw new RuntimeException("This time slot is no longer available");
-        }
-
+        // Throwing here rolls back the reservation above
         if (!slot.getService().getServiceId().equals(request.getServiceId())) {
             throw new RuntimeException("Service mismatch with selected slot");
         }
 
         Service service = slot.getService();
 
-        AppointmentStatus status = appointmentStatusRepository.findByName("CONFIRMED")
-                .orElseThrow(() -> new RuntimeException("Default appointment status not found"));
+        AppointmentStatus status = appointmentStatusRegistry.get(AppointmentStatusName.CONFIRMED);
 
         Appointment appointment = new Appointment();
         appointment.setAppUser(user);
@@ -73,16 +83,13 @@ public class AppointmentServiceImpl implements AppointmentService {
         appointment.setDescription(request.getDescription());
         appointment.setSlot(slot);
 
-        slot.setIsBooked(true);
-        availabilitySlotRepository.save(slot);
-
         Appointment savedAppointment = appointmentRepository.save(appointment);
 
         // Send confirmation email
         sendBookingConfirmationEmail(savedAppointment);
 
         // Sync to Google Calendar if user is connected
-        syncAppointmentToGoogleCalendar(savedAppointment, userEmail, "create");
+        outboxService.enqueueCalendarAction(OutboxEventType.CALENDAR_CREATE, savedAppointment, userEmail);
 
         return mapToResponseDto(savedAppointment);
     }
@@ -103,16 +110,14 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new RuntimeException("Cannot reschedule a " + appointment.getStatus().getName().toLowerCase() + " appointment");
         }
 
-        if (!availabilityService.canBookSlot(rescheduleDto.getNewSlotId())) {
+        if (availabilitySlotRepository.reserveSlot(rescheduleDto.getNewSlotId(), LocalDateTime.now()) == 0) {
             throw new RuntimeException("The selected time slot is no longer available or has already passed");
         }
 
         AvailabilitySlot newSlot = availabilitySlotRepository.findById(rescheduleDto.getNewSlotId())
                 .orElseThrow(() -> new RuntimeException("New availability slot not found"));
-
-        if (newSlot.getIsBooked()) {
-            throw new RuntimeException("The selected time slot is no longer available");
-        }
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                newSlot.getSlotId(), newSlot.getService().getServiceId(), SlotChangeType.BOOKED));
 
         if (!newSlot.getService().getServiceId().equals(rescheduleDto.getServiceId()) ||
                 !appointment.getService().getServiceId().equals(rescheduleDto.getServiceId())) {
@@ -121,13 +126,11 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         AvailabilitySlot oldSlot = appointment.getSlot();
         if (oldSlot != null) {
-            oldSlot.setIsBooked(false);
-            availabilitySlotRepository.save(oldSlot);
+            availabilitySlotRepository.releaseSlot(oldSlot.getSlotId());
+            eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                    oldSlot.getSlotId(), oldSlot.getService().getServiceId(), SlotChangeType.RELEASED));
         }
 
-        newSlot.setIsBooked(true);
-        availabilitySlotRepository.save(newSlot);
-
         appointment.setSlot(newSlot);
         appointment.setScheduledAt(newSlot.getStartTime().toLocalDate());
 
@@ -136,7 +139,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         sendRescheduleNotificationEmail(updatedAppointment, oldSlot);
 
         // Update Google Calendar event if user is connected
-        syncAppointmentToGoogleCalendar(updatedAppointment, userEmail, "update");
+        outboxService.enqueueCalendarAction(OutboxEventType.CALENDAR_UPDATE, updatedAppointment, userEmail);
 
         return mapToResponseDto(updatedAppointment);
     }
@@ -144,31 +147,67 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDto> getUserAppointments(String userEmail) {
-        AppUser user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return appointmentRepository.findByAppUser(user)
-                .stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return appointmentRepository.findResponseDtosByAppUserEmail(userEmail);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDto> getAllAppointments() {
-        return appointmentRepository.findAll()
-                .stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return appointmentRepository.findAllResponseDtos();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public AppointmentResponseDto getAppointmentById(Integer appointmentId) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+    public AppointmentPageDto getAppointmentsPage(GetAppointmentsDto query) {
+        int size = query.getSize() != null ? query.getSize() : 50;
+
+        // Fetch one extra row to know whether another page exists
+        List<AppointmentResponseDto> rows = appointmentRepository.findResponseDtoPage(
+                normalizeStatusFilter(query.getStatus()),
+                query.getServiceId(),
+                query.getFrom(),
+                query.getTo(),
+                query.getAfterId(),
+                Limit.of(size + 1));
+
+        if (rows.size() <= size) {
+            return new AppointmentPageDto(rows, null);
+        }
+
+        List<AppointmentResponseDto> items = rows.subList(0, size);
+        return new AppointmentPageDto(items, items.get(size - 1).getAppointmentId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAppointments(GetAppointmentsDto query, Consumer<AppointmentResponseDto> consumer) {
+        try (Stream<AppointmentResponseDto> rows = appointmentRepository.streamResponseDtos(
+                normalizeStatusFilter(query.getStatus()),
+                query.getServiceId(),
+                query.getFrom(),
+                query.getTo())) {
+            rows.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentResponseDto getAppointmentById(Integer appointmentId, String userEmail) {
+        AppointmentResponseDto appointment = appointmentRepository.findResponseDtoById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(
                         "Appointment with ID " + appointmentId + " not found"));
-        return mapToResponseDto(appointment);
+
+        AppUser requestingUser = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Own appointment or admin user
+        boolean isOwner = requestingUser.getAppUserId().equals(appointment.getUserId());
+        boolean isAdmin = "ROLE_ADMIN".equalsIgnoreCase(requestingUser.getRole());
+
+        if (!isOwner && !isAdmin) {
+            throw new AccessDeniedException("You can only view your own appointments");
+        }
+        return appointment;
     }
 
     @Override
@@ -189,8 +228,7 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new AccessDeniedException("You can only cancel your own appointments");
         }
 
-        AppointmentStatus cancelledStatus = appointmentStatusRepository.findByName("CANCELLED")
-                .orElseThrow(() -> new RuntimeException("Cancelled status not found"));
+        AppointmentStatus cancelledStatus = appointmentStatusRegistry.get(AppointmentStatusName.CANCELLED);
 
         appointment.setStatus(cancelledStatus);
         appointmentRepository.save(appointment);
@@ -200,7 +238,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         sendCancellationEmail(appointment);
 
         // Delete from Google Calendar of the appointment owner
-        syncAppointmentToGoogleCalendar(appointment, appointment.getAppUser().getEmail(), "delete");
+        outboxService.enqueueCalendarAction(OutboxEventType.CALENDAR_DELETE, appointment, appointment.getAppUser().getEmail());
     }
 
     @Override
@@ -209,13 +247,13 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .orElseThrow(() -> new AppointmentNotFoundException(
                         "Appointment with ID " + appointmentId + " not found"));
 
-        AppointmentStatus newStatus = appointmentStatusRepository.findByName(statusUpdate.getStatus().toUpperCase())
+        AppointmentStatus newStatus = appointmentStatusRegistry.findByName(statusUpdate.getStatus())
                 .orElseThrow(() -> new RuntimeException("Status '" + statusUpdate.getStatus() + "' not found"));
 
         if ("CANCELLED".equalsIgnoreCase(statusUpdate.getStatus())) {
             releaseSlotForAppointment(appointment);
             // Delete from Google Calendar for the user
-            syncAppointmentToGoogleCalendar(appointment, appointment.getAppUser().getEmail(), "delete");
+            outboxService.enqueueCalendarAction(OutboxEventType.CALENDAR_DELETE, appointment, appointment.getAppUser().getEmail());
         }
 
         appointment.setStatus(newStatus);
@@ -223,7 +261,7 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         // Update Google Calendar event if status changed but not cancelled
         if (!"CANCELLED".equalsIgnoreCase(statusUpdate.getStatus())) {
-            syncAppointmentToGoogleCalendar(updatedAppointment, appointment.getAppUser().getEmail(), "update");
+            outboxService.enqueueCalendarAction(OutboxEventType.CALENDAR_UPDATE, updatedAppointment, appointment.getAppUser().getEmail());
         }
 
         return mapToResponseDto(updatedAppointment);
@@ -289,7 +327,9 @@ public class AppointmentServiceImpl implements AppointmentService {
         return result;
     }
 
+    // Only calls transactional calendar methods, so no transaction spans the Google batch requests
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> syncAllAppointmentsToCalendar(String userEmail) {
         Map<String, Object> result = new HashMap<>();
         
@@ -304,13 +344,14 @@ public class AppointmentServiceImpl implements AppointmentService {
             }
 
             // Sync existing appointments using the GoogleCalendarService method
-            int syncedCount = googleCalendarService.syncExistingAppointments(userEmail);
+            CalendarBulkSyncResultDto syncResult = googleCalendarService.syncExistingAppointments(userEmail);
             
             result.put("success", true);
-            result.put("syncedCount", syncedCount);
-            result.put("failedCount", 0); // The implementation doesn't track failed syncs
+            result.put("syncedCount", syncResult.getSyncedCount());
+            result.put("failedCount", syncResult.getFailedCount());
+            result.put("failures", syncResult.getFailures());
             
-            log.info("Successfully synced {} appointments for user {}", syncedCount, userEmail);
+            log.info("Successfully synced {} appointments for user {}", syncResult.getSyncedCount(), userEmail);
             
         } catch (Exception e) {
             log.error("Failed to sync all appointments for user {}: {}", userEmail, e.getMessage());
@@ -325,11 +366,22 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     // Helper methods
 
+    // Matches the stored status name regardless of case, like the status update does
+    private String normalizeStatusFilter(String status) {
+        if (status == null) {
+            return null;
+        }
+        return appointmentStatusRegistry.findByName(status)
+                .map(AppointmentStatus::getName)
+                .orElseThrow(() -> new RuntimeException("Status '" + status + "' not found"));
+    }
+
     private void releaseSlotForAppointment(Appointment appointment) {
-        if (appointment.getSlot() != null) {
-            AvailabilitySlot slot = appointment.getSlot();
-            slot.setIsBooked(false);
-            availabilitySlotRepository.save(slot);
+        AvailabilitySlot slot = appointment.getSlot();
+        if (slot != null) {
+            availabilitySlotRepository.releaseSlot(slot.getSlotId());
+            eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                    slot.getSlotId(), slot.getService().getServiceId(), SlotChangeType.RELEASED));
         }
     }
 
@@ -360,111 +412,68 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
     }
 
+    // The email is stored with the booking, so failing to queue it fails the booking
     private void sendBookingConfirmationEmail(Appointment appointment) {
-        try {
-            String subject = "Appointment Confirmation - " + appointment.getService().getName();
-            String htmlMessage = buildConfirmationEmailHtml(appointment);
-            emailService.sendVerificationEmail(appointment.getAppUser().getEmail(), subject, htmlMessage);
-        } catch (Exception e) {
-            // Log error but don't fail the booking
-            log.error("Failed to send booking confirmation email: {}", e.getMessage());
-        }
+        String subject = "Appointment Confirmation - " + appointment.getService().getName();
+        enqueueEmail(OutboxEventType.CONFIRMATION_EMAIL, appointment, subject,
+                "confirmation", confirmationEmailModel(appointment));
     }
 
     private void sendRescheduleNotificationEmail(Appointment appointment, AvailabilitySlot oldSlot) {
-        try {
-            String subject = "Appointment Rescheduled - " + appointment.getService().getName();
-            String htmlMessage = buildRescheduleEmailHtml(appointment, oldSlot);
-            emailService.sendVerificationEmail(appointment.getAppUser().getEmail(), subject, htmlMessage);
-        } catch (Exception e) {
-            log.error("Failed to send reschedule notification email: {}", e.getMessage());
-        }
+        String subject = "Appointment Rescheduled - " + appointment.getService().getName();
+        enqueueEmail(OutboxEventType.RESCHEDULE_EMAIL, appointment, subject,
+                "reschedule", rescheduleEmailModel(appointment, oldSlot));
     }
 
     private void sendCancellationEmail(Appointment appointment) {
-        try {
-            String subject = "Appointment Cancelled - " + appointment.getService().getName();
-            String htmlMessage = buildCancellationEmailHtml(appointment);
-            emailService.sendVerificationEmail(appointment.getAppUser().getEmail(), subject, htmlMessage);
-        } catch (Exception e) {
-            log.error("Failed to send cancellation email: {}", e.getMessage());
-        }
+        String subject = "Appointment Cancelled - " + appointment.getService().getName();
+        enqueueEmail(OutboxEventType.CANCELLATION_EMAIL, appointment, subject,
+                "cancellation", cancellationEmailModel(appointment));
+    }
+
+    // Both variants are stored; the dispatcher picks one for the whole batch's recipients at once
+    private void enqueueEmail(OutboxEventType type, Appointment appointment, String subject,
+                              String template, Map<String, Object> model) {
+        model.put("calendarConnected", false);
+        String htmlMessage = emailTemplateEngine.render(template, model);
+        model.put("calendarConnected", true);
+        String calendarHtmlMessage = emailTemplateEngine.render(template, model);
+        outboxService.enqueueEmail(type, appointment, appointment.getAppUser().getEmail(), subject,
+                htmlMessage, calendarHtmlMessage);
     }
 
-    // Email template methods || transfer them to email service in the future
-
-    private String buildConfirmationEmailHtml(Appointment appointment) {
-        String calendarSync = googleCalendarService.isUserConnectedToGoogleCalendar(appointment.getAppUser().getEmail())
-                ? "<p style=\"color: #28a745;\">✓ This appointment has been added to your Google Calendar</p>"
-                : "<p style=\"color: #6c757d;\">Connect your Google Calendar in your account settings to automatically sync appointments</p>";
-
-        return "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">Appointment Confirmed!</h2>"
-                + "<p style=\"font-size: 16px;\">Your appointment has been successfully booked.</p>"
-                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">"
-                + "<h3 style=\"color: #333;\">Appointment Details:</h3>"
-                + "<p><strong>Service:</strong> " + appointment.getService().getName() + "</p>"
-                + "<p><strong>Date:</strong> " + appointment.getScheduledAt() + "</p>"
-                + "<p><strong>Time:</strong> " + appointment.getSlot().getStartTime().toLocalTime() + " - " + appointment.getSlot().getEndTime().toLocalTime() + "</p>"
-                + "<p><strong>Location:</strong> " + appointment.getLocation() + "</p>"
-                + "<p><strong>Price:</strong> $" + appointment.getService().getPrice() + "</p>"
-                + (appointment.getDescription() != null ? "<p><strong>Notes:</strong> " + appointment.getDescription() + "</p>" : "")
-                + "</div>"
-                + "<div style=\"margin-top: 15px;\">" + calendarSync + "</div>"
-                + "<p style=\"font-size: 14px; margin-top: 20px;\">If you need to reschedule or cancel, please contact us or use your account dashboard.</p>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
+    // Email template models
+
+    private Map<String, Object> confirmationEmailModel(Appointment appointment) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("serviceName", appointment.getService().getName());
+        model.put("date", appointment.getScheduledAt());
+        model.put("startTime", appointment.getSlot().getStartTime().toLocalTime());
+        model.put("endTime", appointment.getSlot().getEndTime().toLocalTime());
+        model.put("location", appointment.getLocation());
+        model.put("price", appointment.getService().getPrice());
+        model.put("notes", appointment.getDescription());
+        return model;
     }
 
-    private String buildRescheduleEmailHtml(Appointment appointment, AvailabilitySlot oldSlot) {
-        String calendarSync = googleCalendarService.isUserConnectedToGoogleCalendar(appointment.getAppUser().getEmail())
-                ? "<p style=\"color: #28a745;\">✓ Your Google Calendar has been updated with the new appointment time</p>"
-                : "<p style=\"color: #6c757d;\">Connect your Google Calendar in your account settings to automatically sync appointment changes</p>";
-
-        return "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">Appointment Rescheduled</h2>"
-                + "<p style=\"font-size: 16px;\">Your appointment has been successfully rescheduled.</p>"
-                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">"
-                + "<h3 style=\"color: #333;\">New Appointment Details:</h3>"
-                + "<p><strong>Service:</strong> " + appointment.getService().getName() + "</p>"
-                + "<p><strong>New Date:</strong> " + appointment.getScheduledAt() + "</p>"
-                + "<p><strong>New Time:</strong> " + appointment.getSlot().getStartTime().toLocalTime() + " - " + appointment.getSlot().getEndTime().toLocalTime() + "</p>"
-                + "<p><strong>Location:</strong> " + appointment.getLocation() + "</p>"
-                + "<hr style=\"margin: 15px 0;\">"
-                + "<p style=\"color: #666;\"><strong>Previous Time:</strong> " + oldSlot.getStartTime().toLocalDate() + " at " + oldSlot.getStartTime().toLocalTime() + "</p>"
-                + "</div>"
-                + "<div style=\"margin-top: 15px;\">" + calendarSync + "</div>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
+    private Map<String, Object> rescheduleEmailModel(Appointment appointment, AvailabilitySlot oldSlot) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("serviceName", appointment.getService().getName());
+        model.put("date", appointment.getScheduledAt());
+        model.put("startTime", appointment.getSlot().getStartTime().toLocalTime());
+        model.put("endTime", appointment.getSlot().getEndTime().toLocalTime());
+        model.put("location", appointment.getLocation());
+        model.put("previousDate", oldSlot.getStartTime().toLocalDate());
+        model.put("previousTime", oldSlot.getStartTime().toLocalTime());
+        return model;
     }
 
-    private String buildCancellationEmailHtml(Appointment appointment) {
-        String calendarSync = googleCalendarService.isUserConnectedToGoogleCalendar(appointment.getAppUser().getEmail())
-                ? "<p style=\"color: #28a745;\">✓ This appointment has been removed from your Google Calendar</p>"
-                : "";
-
-        return "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">Appointment Cancelled</h2>"
-                + "<p style=\"font-size: 16px;\">Your appointment has been cancelled as requested.</p>"
-                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">"
-                + "<h3 style=\"color: #333;\">Cancelled Appointment:</h3>"
-                + "<p><strong>Service:</strong> " + appointment.getService().getName() + "</p>"
-                + "<p><strong>Date:</strong> " + appointment.getScheduledAt() + "</p>"
-                + "<p><strong>Time:</strong> " + appointment.getSlot().getStartTime().toLocalTime() + "</p>"
-                + "</div>"
-                + "<div style=\"margin-top: 15px;\">" + calendarSync + "</div>"
-                + "<p style=\"font-size: 14px; margin-top: 20px;\">We're sorry to see you go! Feel free to book another appointment anytime.</p>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
+    private Map<String, Object> cancellationEmailModel(Appointment appointment) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("serviceName", appointment.getService().getName());
+        model.put("date", appointment.getScheduledAt());
+        model.put("startTime", appointment.getSlot().getStartTime().toLocalTime());
+        return model;
     }
 
     private AppointmentResponseDto mapToResponseDto(Appointment appointment) {
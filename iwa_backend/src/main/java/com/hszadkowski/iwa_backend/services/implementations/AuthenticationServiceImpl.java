@@ -4,6 +4,8 @@ import com.hszadkowski.iwa_backend.dto.*;
 import com.hszadkowski.iwa_backend.exceptions.UserAlreadyExistsException;
 import com.hszadkowski.iwa_backend.models.AppUser;
 import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.EmailTemplateEngine;
+import com.hszadkowski.iwa_backend.services.PrincipalCache;
 import com.hszadkowski.iwa_backend.services.interfaces.AuthenticationService;
 import com.hszadkowski.iwa_backend.services.interfaces.EmailService;
 import jakarta.mail.MessagingException;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +29,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final PrincipalCache principalCache;
+    private final EmailTemplateEngine emailTemplateEngine;
 
     @Override
     public UserSignUpResponseDto signUp(RegisterUserRequestDto input) {
@@ -147,6 +152,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 appUser.setVerificationCode(null);
                 appUser.setVerificationCodeExpiresAt(null);
                 userRepository.save(appUser);
+                principalCache.evict(appUser.getEmail());
             } else {
                 throw new RuntimeException("Invalid verification code");
             }
@@ -203,6 +209,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 appUser.setPasswordResetCodeExpiresAt(null);
                 appUser.setEnabled(true);
                 userRepository.save(appUser);
+                principalCache.evict(appUser.getEmail());
             } else {
                 throw new RuntimeException("Invalid reset code");
             }
@@ -213,19 +220,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     private void sendVerificationEmail(AppUser user) {
         String subject = "Account Verification";
-        String verificationCode = "VERIFICATION CODE " + user.getVerificationCode();
-        String htmlMessage = "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">Welcome to our app!</h2>"
-                + "<p style=\"font-size: 16px;\">Please enter the verification code below to continue:</p>"
-                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">"
-                + "<h3 style=\"color: #333;\">Verification Code:</h3>"
-                + "<p style=\"font-size: 18px; font-weight: bold; color: #007bff;\">" + verificationCode + "</p>"
-                + "</div>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
+        String htmlMessage = emailTemplateEngine.render("verification",
+                Map.of("verificationCode", user.getVerificationCode()));
 
         try {
             emailService.sendVerificationEmail(user.getEmail(), subject, htmlMessage);
@@ -237,21 +233,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     private void sendPasswordResetEmailToUser(AppUser user) {
         String subject = "Password Reset Request";
-        String resetCode = user.getPasswordResetCode();
-        String htmlMessage = "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">Password Reset</h2>"
-                + "<p style=\"font-size: 16px;\">You have requested to reset your password. Please use the code below to set a new password for your account:</p>"
-                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">"
-                + "<h3 style=\"color: #333;\">Reset Code:</h3>"
-                + "<p style=\"font-size: 18px; font-weight: bold; color: #007bff;\">" + resetCode + "</p>"
-                + "</div>"
-                + "<p style=\"font-size: 14px; margin-top: 20px;\">This code will expire in 15 minutes.</p>"
-                + "<p style=\"font-size: 14px;\">If you did not request this password reset, please ignore this email or contact support if you have concerns.</p>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
+        String htmlMessage = emailTemplateEngine.render("password-reset",
+                Map.of("resetCode", user.getPasswordResetCode()));
 
         try {
             emailService.sendPasswordResetEmail(user.getEmail(), subject, htmlMessage);
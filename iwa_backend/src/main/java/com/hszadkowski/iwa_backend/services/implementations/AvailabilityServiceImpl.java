@@ -1,39 +1,60 @@
 package com.hszadkowski.iwa_backend.services.implementations;
 
+import com.hszadkowski.iwa_backend.config.SlotOverlapConstraint;
 import com.hszadkowski.iwa_backend.dto.AvailabilitySlotResponseDto;
 import com.hszadkowski.iwa_backend.dto.CreateAvailabilitySlotDto;
+import com.hszadkowski.iwa_backend.dto.CreateRecurringAvailabilityDto;
 import com.hszadkowski.iwa_backend.dto.GetAvailableSlotsDto;
+import com.hszadkowski.iwa_backend.dto.RecurringAvailabilityResultDto;
+import com.hszadkowski.iwa_backend.events.SlotAvailabilityChangedEvent;
+import com.hszadkowski.iwa_backend.events.SlotChangeType;
+import com.hszadkowski.iwa_backend.events.SlotsGeneratedEvent;
 import com.hszadkowski.iwa_backend.exceptions.ServiceDoesNotExistException;
 import com.hszadkowski.iwa_backend.models.AppUser;
 import com.hszadkowski.iwa_backend.models.Appointment;
 import com.hszadkowski.iwa_backend.models.AppointmentStatus;
+import com.hszadkowski.iwa_backend.models.AppointmentStatusName;
 import com.hszadkowski.iwa_backend.models.AvailabilitySlot;
 import com.hszadkowski.iwa_backend.models.Service;
 import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
-import com.hszadkowski.iwa_backend.repos.AppointmentStatusRepository;
 import com.hszadkowski.iwa_backend.repos.AvailabilitySlotRepository;
 import com.hszadkowski.iwa_backend.repos.ServiceRepository;
 import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.AppointmentStatusRegistry;
+import com.hszadkowski.iwa_backend.services.ServiceCatalogCache;
+import com.hszadkowski.iwa_backend.services.SlotAvailabilityIndex;
 import com.hszadkowski.iwa_backend.services.interfaces.AvailabilityService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
 @RequiredArgsConstructor
 @Transactional
 public class AvailabilityServiceImpl implements AvailabilityService {
 
+    private static final int MAX_RECURRENCE_DAYS = 366;
+    private static final int MAX_GENERATED_SLOTS = 5000;
+
     private final AvailabilitySlotRepository availabilitySlotRepository;
     private final ServiceRepository serviceRepository;
     private final UserRepository userRepository;
     private final AppointmentRepository appointmentRepository;
-    private final AppointmentStatusRepository appointmentStatusRepository;
+    private final AppointmentStatusRegistry appointmentStatusRegistry;
+    private final ServiceCatalogCache serviceCatalogCache;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public AvailabilitySlotResponseDto createAvailabilitySlot(CreateAvailabilitySlotDto dto, String adminEmail) {
@@ -55,38 +76,73 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         slot.setEndTime(dto.getEndTime());
         slot.setIsBooked(false);
 
-        AvailabilitySlot savedSlot = availabilitySlotRepository.save(slot);
+        AvailabilitySlot savedSlot = saveWithoutOverlap(slot);
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                savedSlot.getSlotId(), service.getServiceId(), SlotChangeType.CREATED));
         return mapToResponseDto(savedSlot);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public RecurringAvailabilityResultDto createRecurringAvailability(CreateRecurringAvailabilityDto dto, String adminEmail) {
+        AppUser admin = userRepository.findByEmail(adminEmail)
+                .orElseThrow(() -> new RuntimeException("Admin not found"));
+
+        Service service = serviceRepository.findById(dto.getServiceId())
+                .orElseThrow(() -> new ServiceDoesNotExistException("Service not found"));
+
+        int durationMin = dto.getSlotDurationMin() != null ? dto.getSlotDurationMin() : service.getDurationMin();
+        List<AvailabilitySlot> candidates = expandTemplate(dto, Duration.ofMinutes(durationMin), admin, service);
+        if (candidates.isEmpty()) {
+            return new RecurringAvailabilityResultDto(service.getServiceId(), 0, 0);
+        }
+
+        // Both lists are ordered by start time, so one pass finds every overlap
+        List<AvailabilitySlotResponseDto> existing = availabilitySlotRepository.findResponseDtosOverlappingRange(
+                admin, candidates.getFirst().getStartTime(), candidates.getLast().getEndTime());
+        List<AvailabilitySlot> slots = new ArrayList<>(candidates.size());
+        int next = 0;
+        for (AvailabilitySlot candidate : candidates) {
+            while (next < existing.size() && !existing.get(next).getEndTime().isAfter(candidate.getStartTime())) {
+                next++;
+            }
+            boolean overlaps = next < existing.size()
+                    && existing.get(next).getStartTime().isBefore(candidate.getEndTime());
+            if (!overlaps) {
+                slots.add(candidate);
+            }
+        }
+
+        // Pooled sequence ids let Hibernate send these as JDBC batches on flush
+        try {
+            availabilitySlotRepository.saveAll(slots);
+            availabilitySlotRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
+        if (!slots.isEmpty()) {
+            eventPublisher.publishEvent(new SlotsGeneratedEvent(service.getServiceId(), slots.size()));
+        }
+        return new RecurringAvailabilityResultDto(service.getServiceId(), slots.size(), candidates.size() - slots.size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS) // served from memory, no need to hold a connection
     public List<AvailabilitySlotResponseDto> getAvailableSlots(GetAvailableSlotsDto dto) {
-        List<AvailabilitySlot> slots;
+        List<AvailabilitySlotResponseDto> slots = slotAvailabilityIndex.findOpenSlots(
+                dto.getServiceId(), dto.getStartTime(), dto.getEndTime());
 
-        if (dto.getServiceId() != null) {
-            Service service = serviceRepository.findById(dto.getServiceId())
-                    .orElseThrow(() -> new ServiceDoesNotExistException("Service not found"));
-            slots = availabilitySlotRepository.findByServiceAndIsBookedFalseAndStartTimeBetween(
-                    service, dto.getStartTime(), dto.getEndTime());
-        } else {
-            slots = availabilitySlotRepository.findByIsBookedFalseAndStartTimeBetween(
-                    dto.getStartTime(), dto.getEndTime());
+        // Only an empty result can mean the service does not exist
+        if (slots.isEmpty() && dto.getServiceId() != null && !serviceCatalogCache.contains(dto.getServiceId())) {
+            throw new ServiceDoesNotExistException("Service not found");
         }
 
-        return slots.stream()
-                .filter(slot -> !slot.getIsBooked() && slot.getStartTime().isAfter(LocalDateTime.now()))
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return slots;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AvailabilitySlotResponseDto> getAllSlots() {
-        return availabilitySlotRepository.findAll()
-                .stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return availabilitySlotRepository.findAllResponseDtos();
     }
 
     @Override
@@ -99,6 +155,8 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         }
 
         availabilitySlotRepository.delete(slot);
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                slotId, slot.getService().getServiceId(), SlotChangeType.DELETED));
     }
 
     @Override
@@ -114,16 +172,22 @@ public class AvailabilityServiceImpl implements AvailabilityService {
 
         checkForOverlappingSlotsExcludingCurrent(slot.getAppUser(), dto.getStartTime(), dto.getEndTime(), slotId);
 
-        if (!slot.getService().getServiceId().equals(dto.getServiceId())) {
+        Integer previousServiceId = slot.getService().getServiceId();
+        if (!previousServiceId.equals(dto.getServiceId())) {
             Service newService = serviceRepository.findById(dto.getServiceId())
                     .orElseThrow(() -> new RuntimeException("Service not found"));
             slot.setService(newService);
+            // Subscribers to the previous service only see the slot leave their listing
+            eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                    slotId, previousServiceId, SlotChangeType.DELETED));
         }
 
         slot.setStartTime(dto.getStartTime());
         slot.setEndTime(dto.getEndTime());
 
-        AvailabilitySlot updatedSlot = availabilitySlotRepository.save(slot);
+        AvailabilitySlot updatedSlot = saveWithoutOverlap(slot);
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                slotId, updatedSlot.getService().getServiceId(), SlotChangeType.UPDATED));
         return mapToResponseDto(updatedSlot);
     }
 
@@ -138,6 +202,8 @@ public class AvailabilityServiceImpl implements AvailabilityService {
 
         slot.setIsBooked(true);
         availabilitySlotRepository.save(slot);
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                slotId, slot.getService().getServiceId(), SlotChangeType.BOOKED));
     }
 
     @Override
@@ -152,14 +218,15 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         if (activeAppointment.isPresent()) {
             // Cancel the appointment if it exists
             Appointment appointment = activeAppointment.get();
-            AppointmentStatus cancelledStatus = appointmentStatusRepository.findByName("CANCELLED")
-                    .orElseThrow(() -> new RuntimeException("Cancelled status not found"));
+            AppointmentStatus cancelledStatus = appointmentStatusRegistry.get(AppointmentStatusName.CANCELLED);
             appointment.setStatus(cancelledStatus);
             appointmentRepository.save(appointment);
         }
 
         slot.setIsBooked(false);
         availabilitySlotRepository.save(slot);
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                slotId, slot.getService().getServiceId(), SlotChangeType.RELEASED));
     }
 
     @Override
@@ -173,20 +240,12 @@ public class AvailabilityServiceImpl implements AvailabilityService {
     @Override
     @Transactional(readOnly = true)
     public List<AvailabilitySlotResponseDto> getSlotsByService(Integer serviceId) {
-        Service service = serviceRepository.findById(serviceId)
-                .orElseThrow(() -> new RuntimeException("Service not found"));
-
-        return availabilitySlotRepository.findByService(service)
-                .stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
-    }
+        List<AvailabilitySlotResponseDto> slots = availabilitySlotRepository.findResponseDtosByServiceId(serviceId);
 
-    @Override
-    public boolean canBookSlot(Integer slotId) {
-        return availabilitySlotRepository.findById(slotId)
-                .map(slot -> !slot.getIsBooked() && slot.getStartTime().isAfter(LocalDateTime.now()))
-                .orElse(false);
+        if (slots.isEmpty() && !serviceCatalogCache.contains(serviceId)) {
+            throw new RuntimeException("Service not found");
+        }
+        return slots;
     }
 
     // Helper methods
@@ -200,6 +259,68 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         }
     }
 
+    // Future slots of the template in start time order; validation mirrors single slot creation
+    private List<AvailabilitySlot> expandTemplate(CreateRecurringAvailabilityDto dto, Duration duration,
+                                                  AppUser admin, Service service) {
+        if (dto.getEndDate().isBefore(dto.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(dto.getStartDate(), dto.getEndDate()) >= MAX_RECURRENCE_DAYS) {
+            throw new IllegalArgumentException("Recurring availability can span at most " + MAX_RECURRENCE_DAYS + " days");
+        }
+        if (!dto.getDayStartTime().isBefore(dto.getDayEndTime())) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        for (LocalDate date = dto.getStartDate(); !date.isAfter(dto.getEndDate()); date = date.plusDays(1)) {
+            if (!dto.getDaysOfWeek().contains(date.getDayOfWeek())) {
+                continue;
+            }
+
+            LocalDateTime dayEnd = date.atTime(dto.getDayEndTime());
+            for (LocalDateTime start = date.atTime(dto.getDayStartTime());
+                 !start.plus(duration).isAfter(dayEnd);
+                 start = start.plus(duration)) {
+                if (!start.isAfter(now)) {
+                    continue;
+                }
+
+                AvailabilitySlot slot = new AvailabilitySlot();
+                slot.setAppUser(admin);
+                slot.setService(service);
+                slot.setStartTime(start);
+                slot.setEndTime(start.plus(duration));
+                slot.setIsBooked(false);
+                slots.add(slot);
+
+                if (slots.size() > MAX_GENERATED_SLOTS) {
+                    throw new IllegalArgumentException("Recurring availability would create more than "
+                            + MAX_GENERATED_SLOTS + " slots");
+                }
+            }
+        }
+        return slots;
+    }
+
+    // Flushes so a concurrent overlapping insert is rejected here rather than at commit
+    private AvailabilitySlot saveWithoutOverlap(AvailabilitySlot slot) {
+        try {
+            return availabilitySlotRepository.saveAndFlush(slot);
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
+    }
+
+    private RuntimeException translateOverlap(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.contains(SlotOverlapConstraint.CONSTRAINT_NAME)) {
+            return new RuntimeException("Time slot overlaps with existing availability");
+        }
+        return e;
+    }
+
     private void checkForOverlappingSlots(AppUser admin, LocalDateTime startTime, LocalDateTime endTime) {
         List<AvailabilitySlot> overlappingSlots = availabilitySlotRepository
                 .findOverlappingSlots(admin, startTime, endTime);
@@ -1,19 +1,31 @@
 package com.hszadkowski.iwa_backend.services.implementations;
 
+import com.hszadkowski.iwa_backend.services.SmtpMailDispatcher;
 import com.hszadkowski.iwa_backend.services.interfaces.EmailService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @Service
 public class EmailServiceImpl implements EmailService {
 
     @Autowired
     private JavaMailSender emailSender;
 
+    @Autowired
+    private SmtpMailDispatcher smtpMailDispatcher;
+
+    @Value("${outbound.smtp.send-timeout-ms:60000}")
+    private long sendTimeoutMs;
+
     @Override
     public void sendVerificationEmail(String to, String subject, String text) throws MessagingException {
         MimeMessage message = emailSender.createMimeMessage();
@@ -23,7 +35,7 @@ public class EmailServiceImpl implements EmailService {
         helper.setSubject(subject);
         helper.setText(text, true);
 
-        emailSender.send(message);
+        send(message);
     }
 
     @Override
@@ -35,6 +47,26 @@ public class EmailServiceImpl implements EmailService {
         helper.setSubject(subject);
         helper.setText(text, true);
 
-        emailSender.send(message);
+        send(message);
+    }
+
+    // Helper methods
+
+    // Goes through the dispatcher's pooled connections and waits a bounded time for this message's outcome
+    private void send(MimeMessage message) throws MessagingException {
+        try {
+            smtpMailDispatcher.submit(message).getFirst().get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MessagingException messagingException) {
+                throw messagingException;
+            }
+            throw new RuntimeException("Failed to send email: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Failed to send email: no result from the mail dispatcher within "
+                    + sendTimeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending email", e);
+        }
     }
 }
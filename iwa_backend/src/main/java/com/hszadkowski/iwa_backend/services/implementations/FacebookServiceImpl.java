@@ -1,16 +1,23 @@
 package com.hszadkowski.iwa_backend.services.implementations;
 
 import com.hszadkowski.iwa_backend.dto.FacebookUserDto;
+import com.hszadkowski.iwa_backend.services.OAuthTokenCache;
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter;
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter.OutboundProvider;
 import com.hszadkowski.iwa_backend.services.interfaces.FacebookService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
 
+import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
+@RequiredArgsConstructor
 public class FacebookServiceImpl implements FacebookService {
 
     @Value("${FACEBOOK_APP_ID:}")
@@ -19,19 +26,34 @@ public class FacebookServiceImpl implements FacebookService {
     @Value("${FACEBOOK_APP_SECRET:}")
     private String facebookAppSecret;
 
-    private final RestTemplate restTemplate = new RestTemplate(); // maybe later change to WebClient
+    private final OutboundCallLimiter outboundCallLimiter;
+
+    private final OAuthTokenCache oauthTokenCache;
+
+    private final RestClient oauthRestClient;
 
     @Override
     public boolean validateFacebookToken(String accessToken) {
+        if (oauthTokenCache.isValidated(OutboundProvider.FACEBOOK, accessToken)) {
+            return true;
+        }
+
         String url = "https://graph.facebook.com/debug_token?input_token=" + accessToken +
                 "&access_token=" + facebookAppId + "|" + facebookAppSecret;
 
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            ResponseEntity<Map> response = outboundCallLimiter.call(OutboundProvider.FACEBOOK,
+                    () -> oauthRestClient.get().uri(url).retrieve().toEntity(Map.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> data = (Map<String, Object>) response.getBody().get("data");
-                return data != null && (boolean) data.get("is_valid");
+                // A token issued to another app is valid too, but must not log anyone in here
+                boolean valid = data != null && Boolean.TRUE.equals(data.get("is_valid"))
+                        && facebookAppId.equals(String.valueOf(data.get("app_id")));
+                if (valid) {
+                    oauthTokenCache.markValidated(OutboundProvider.FACEBOOK, accessToken, expiresAt(data.get("expires_at")));
+                }
+                return valid;
             }
             return false;
         } catch (Exception e) {
@@ -39,12 +61,23 @@ public class FacebookServiceImpl implements FacebookService {
         }
     }
 
+    @Override
+    public CompletableFuture<FacebookUserDto> getFacebookUserInfoAsync(String accessToken) {
+        return oauthTokenCache.lookupAsync(() -> getFacebookUserInfo(accessToken));
+    }
+
     @Override
     public FacebookUserDto getFacebookUserInfo(String accessToken) {
+        FacebookUserDto cached = oauthTokenCache.getProfile(OutboundProvider.FACEBOOK, accessToken, FacebookUserDto.class);
+        if (cached != null) {
+            return cached;
+        }
+
         String url = "https://graph.facebook.com/me?fields=id,name,email&access_token=" + accessToken;
 
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            ResponseEntity<Map> response = outboundCallLimiter.call(OutboundProvider.FACEBOOK,
+                    () -> oauthRestClient.get().uri(url).retrieve().toEntity(Map.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> userData = response.getBody();
@@ -55,6 +88,7 @@ public class FacebookServiceImpl implements FacebookService {
                 facebookUser.setEmail((String) userData.get("email"));
                 facebookUser.setAccessToken(accessToken);
 
+                oauthTokenCache.putProfile(OutboundProvider.FACEBOOK, accessToken, facebookUser);
                 return facebookUser;
             }
             return null;
@@ -62,4 +96,14 @@ public class FacebookServiceImpl implements FacebookService {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    // Helper methods
+
+    // Facebook reports 0 for tokens that never expire
+    private Instant expiresAt(Object epochSeconds) {
+        if (epochSeconds instanceof Number seconds && seconds.longValue() > 0) {
+            return Instant.ofEpochSecond(seconds.longValue());
+        }
+        return null;
+    }
+}
@@ -1,20 +1,52 @@
 package com.hszadkowski.iwa_backend.services.implementations;
 
 import com.hszadkowski.iwa_backend.dto.GoogleUserDto;
+import com.hszadkowski.iwa_backend.services.OAuthTokenCache;
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter;
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter.OutboundProvider;
 import com.hszadkowski.iwa_backend.services.interfaces.GoogleAuthService;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class GoogleAuthServiceImpl implements GoogleAuthService {
 
+    private static final Set<String> GOOGLE_ISSUERS = Set.of("https://accounts.google.com", "accounts.google.com");
+
     @Value("${google.auth.client.id}")
     private String googleClientId;
 
@@ -24,7 +56,18 @@ public class GoogleAuthServiceImpl implements GoogleAuthService {
     @Value("${GOOGLE_CALENDAR_CLIENT_ID}")
     private String googleCalendarClientId;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Overridable so the signing keys can be served by a local fake
+    @Value("${google.auth.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}")
+    private String jwksUri;
+
+    private final OutboundCallLimiter outboundCallLimiter;
+
+    // Access tokens only; ID tokens are verified locally
+    private final OAuthTokenCache oauthTokenCache;
+
+    private final RestClient oauthRestClient;
+
+    private volatile JwtDecoder idTokenDecoder;
 
     @Override
     public boolean validateGoogleToken(String token) {
@@ -38,41 +81,29 @@ public class GoogleAuthServiceImpl implements GoogleAuthService {
     }
 
     private boolean validateIdToken(String idToken) {
-        String url = "https://oauth2.googleapis.com/tokeninfo?id_token=" + idToken;
-
-        try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> tokenInfo = response.getBody();
-                String audience = (String) tokenInfo.get("aud");
-                String issuer = (String) tokenInfo.get("iss");
-
-                // Validate the token
-                boolean validAudience = googleCalendarClientId.equals(audience);
-                boolean validIssuer = "https://accounts.google.com".equals(issuer) ||
-                                     "accounts.google.com".equals(issuer);
-
-                return validAudience && validIssuer;
-            }
-            return false;
-        } catch (Exception e) {
-            log.error("Error validating Google ID token: ", e);
-            return false;
-        }
+        return verifyIdToken(idToken) != null;
     }
 
     private boolean validateAccessToken(String accessToken) {
+        if (oauthTokenCache.isValidated(OutboundProvider.GOOGLE, accessToken)) {
+            return true;
+        }
+
         String url = "https://www.googleapis.com/oauth2/v1/tokeninfo?access_token=" + accessToken;
 
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            ResponseEntity<Map> response = outboundCallLimiter.call(OutboundProvider.GOOGLE,
+                    () -> oauthRestClient.get().uri(url).retrieve().toEntity(Map.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> tokenInfo = response.getBody();
                 String audience = (String) tokenInfo.get("audience");
 
-                return googleCalendarClientId.equals(audience);
+                boolean valid = googleCalendarClientId.equals(audience);
+                if (valid) {
+                    oauthTokenCache.markValidated(OutboundProvider.GOOGLE, accessToken, expiresAt(tokenInfo.get("expires_in")));
+                }
+                return valid;
             }
             return false;
         } catch (Exception e) {
@@ -81,6 +112,11 @@ public class GoogleAuthServiceImpl implements GoogleAuthService {
         }
     }
 
+    @Override
+    public CompletableFuture<GoogleUserDto> getGoogleUserInfoAsync(String accessToken) {
+        return oauthTokenCache.lookupAsync(() -> getGoogleUserInfo(accessToken));
+    }
+
     @Override
     public GoogleUserDto getGoogleUserInfo(String token) {
         // Check if it's an ID token or access token
@@ -92,39 +128,37 @@ public class GoogleAuthServiceImpl implements GoogleAuthService {
     }
 
     private GoogleUserDto getUserInfoFromIdToken(String idToken) {
-        String url = "https://oauth2.googleapis.com/tokeninfo?id_token=" + idToken;
-
-        try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> tokenInfo = response.getBody();
-
-                GoogleUserDto googleUser = new GoogleUserDto();
-                googleUser.setId((String) tokenInfo.get("sub"));
-                googleUser.setEmail((String) tokenInfo.get("email"));
-                googleUser.setName((String) tokenInfo.get("name"));
-                googleUser.setGivenName((String) tokenInfo.get("given_name"));
-                googleUser.setFamilyName((String) tokenInfo.get("family_name"));
-                googleUser.setAccessToken(idToken);
-
-                return googleUser;
-            }
-            return null;
-        } catch (Exception e) {
-            log.error("Error getting Google user info from ID token: ", e);
+        Jwt verifiedToken = verifyIdToken(idToken);
+        if (verifiedToken == null) {
             return null;
         }
+
+        GoogleUserDto googleUser = new GoogleUserDto();
+        googleUser.setId(verifiedToken.getSubject());
+        googleUser.setEmail(verifiedToken.getClaimAsString("email"));
+        googleUser.setName(verifiedToken.getClaimAsString("name"));
+        googleUser.setGivenName(verifiedToken.getClaimAsString("given_name"));
+        googleUser.setFamilyName(verifiedToken.getClaimAsString("family_name"));
+        googleUser.setAccessToken(idToken);
+
+        return googleUser;
     }
 
     private GoogleUserDto getUserInfoFromAccessToken(String accessToken) {
+        GoogleUserDto cached = oauthTokenCache.getProfile(OutboundProvider.GOOGLE, accessToken, GoogleUserDto.class);
+        if (cached != null) {
+            return cached;
+        }
+
         String url = "https://www.googleapis.com/oauth2/v2/userinfo?access_token=" + accessToken;
 
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            ResponseEntity<Map> response = outboundCallLimiter.call(OutboundProvider.GOOGLE,
+                    () -> oauthRestClient.get().uri(url).retrieve().toEntity(Map.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 GoogleUserDto googleUser = getGoogleUserDto(accessToken, response);
+                oauthTokenCache.putProfile(OutboundProvider.GOOGLE, accessToken, googleUser);
                 return googleUser;
             }
             return null;
@@ -134,6 +168,78 @@ public class GoogleAuthServiceImpl implements GoogleAuthService {
         }
     }
 
+    // Checks signature, expiry, issuer and audience locally; only a key rotation costs a round trip
+    private Jwt verifyIdToken(String idToken) {
+        try {
+            return getIdTokenDecoder().decode(idToken);
+        } catch (JwtException e) {
+            log.warn("Rejected Google ID token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private JwtDecoder getIdTokenDecoder() {
+        JwtDecoder decoder = idTokenDecoder;
+        if (decoder == null) {
+            synchronized (this) {
+                decoder = idTokenDecoder;
+                if (decoder == null) {
+                    decoder = buildIdTokenDecoder();
+                    idTokenDecoder = decoder;
+                }
+            }
+        }
+        return decoder;
+    }
+
+    // The key source caches the key set and refetches it when a token is signed with an unknown key
+    // id. It fetches through the shared client and the Google call limit like every other lookup.
+    private JwtDecoder buildIdTokenDecoder() {
+        JWKSource<SecurityContext> jwkSource;
+        try {
+            jwkSource = JWKSourceBuilder.create(URI.create(jwksUri).toURL(), this::fetchJwkSet).build();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid Google JWKS URI", e);
+        }
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by the validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(),
+                new JwtClaimValidator<String>(JwtClaimNames.ISS, GOOGLE_ISSUERS::contains),
+                new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                        audience -> audience != null && audience.contains(googleCalendarClientId))
+        ));
+        return decoder;
+    }
+
+    // Failures are reported as IOException so the key source treats them as a failed retrieval
+    private Resource fetchJwkSet(URL url) throws IOException {
+        ResponseEntity<String> response;
+        try {
+            response = outboundCallLimiter.call(OutboundProvider.GOOGLE,
+                    () -> oauthRestClient.get().uri(url.toString()).retrieve().toEntity(String.class));
+        } catch (RestClientException e) {
+            throw new IOException("Failed to fetch Google signing keys: " + e.getMessage(), e);
+        }
+
+        MediaType contentType = response.getHeaders().getContentType();
+        return new Resource(response.getBody(), contentType != null ? contentType.toString() : null);
+    }
+
+    private Instant expiresAt(Object expiresIn) {
+        if (expiresIn instanceof Number seconds && seconds.longValue() > 0) {
+            return Instant.now().plusSeconds(seconds.longValue());
+        }
+        return null;
+    }
+
     private static GoogleUserDto getGoogleUserDto(String accessToken, ResponseEntity<Map> response) {
         Map<String, Object> userInfo = response.getBody();
 
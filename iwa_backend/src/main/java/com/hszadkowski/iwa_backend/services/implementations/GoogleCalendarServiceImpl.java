@@ -1,13 +1,21 @@
 package com.hszadkowski.iwa_backend.services.implementations;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.api.client.auth.oauth2.BearerToken;
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.googleapis.auth.oauth2.GoogleOAuthConstants;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
 import com.google.api.client.http.GenericUrl;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.client.util.DateTime;
@@ -17,10 +25,14 @@ import com.google.api.services.calendar.model.CalendarList;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
 import com.google.api.services.calendar.model.EventReminder;
+import com.google.api.services.calendar.model.Events;
 import com.google.api.services.oauth2.Oauth2;
 import com.google.api.services.oauth2.model.Userinfo;
+import com.hszadkowski.iwa_backend.dto.CalendarBulkSyncResultDto;
+import com.hszadkowski.iwa_backend.dto.CalendarPullResultDto;
 import com.hszadkowski.iwa_backend.dto.CalendarTokenResponseDto;
 import com.hszadkowski.iwa_backend.dto.GoogleCalendarEventDto;
+import com.hszadkowski.iwa_backend.exceptions.CalendarEventConflictException;
 import com.hszadkowski.iwa_backend.models.AppUser;
 import com.hszadkowski.iwa_backend.models.Appointment;
 import com.hszadkowski.iwa_backend.models.CalendarEvent;
@@ -29,21 +41,38 @@ import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
 import com.hszadkowski.iwa_backend.repos.CalendarEventRepository;
 import com.hszadkowski.iwa_backend.repos.CalendarTokenRepository;
 import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter;
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter.OutboundProvider;
 import com.hszadkowski.iwa_backend.services.interfaces.GoogleCalendarService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
@@ -54,6 +83,17 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
     private static final String APPLICATION_NAME = "Makeup Appointment Booking";
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
     private static final String PROVIDER_GOOGLE = "google";
+    private static final String PRIMARY_CALENDAR_ID = "primary";
+    // Google recommends at most 50 calls per batch request
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final int SYNC_PAGE_SIZE = 250;
+    private static final int HTTP_GONE = 410;
+    private static final int HTTP_PRECONDITION_FAILED = 412;
+    private static final long MAX_CACHED_CLIENTS = 1_000;
+    private static final Duration CLIENT_IDLE_TTL = Duration.ofHours(1);
+    // Scheduled refreshes happen between lead and lead + jitter before expiry
+    private static final Duration REFRESH_LEAD = Duration.ofMinutes(5);
+    private static final Duration REFRESH_JITTER = Duration.ofMinutes(10);
 
     @Value("${google.calendar.client.id}")
     private String clientId;
@@ -64,16 +104,33 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
     @Value("${google.calendar.redirect.uri}")
     private String redirectUri;
 
+    // Overridable so the Calendar API and the token endpoint can be pointed at a local fake
+    @Value("${google.calendar.root-url:" + Calendar.DEFAULT_ROOT_URL + "}")
+    private String calendarRootUrl;
+
+    @Value("${google.calendar.token-server-url:" + GoogleOAuthConstants.TOKEN_SERVER_URL + "}")
+    private String tokenServerUrl;
+
     private final UserRepository userRepository;
     private final CalendarTokenRepository calendarTokenRepository;
     private final CalendarEventRepository calendarEventRepository;
     private final AppointmentRepository appointmentRepository;
+    private final HttpTransport googleHttpTransport;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile GoogleAuthorizationCodeFlow flow;
+
+    // Calendar clients per user, rebuilt when the stored access token changes
+    private final Cache<String, CachedCalendarClient> calendarClients = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_CLIENTS)
+            .expireAfterAccess(CLIENT_IDLE_TTL)
+            .build();
 
     @Override
     public String getAuthorizationUrl(String userEmail) {
         try {
-            GoogleAuthorizationCodeFlow flow = createFlow();
-            return flow.newAuthorizationUrl()
+            return getFlow().newAuthorizationUrl()
                     .setRedirectUri(redirectUri)
                     .setState(userEmail)
                     .build();
@@ -84,16 +141,16 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CalendarTokenResponseDto handleOAuthCallback(String authCode, String userEmail)
             throws IOException, GeneralSecurityException {
 
-        AppUser user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        AppUser user = inReadOnlyTransaction(status -> userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found")));
 
-        GoogleAuthorizationCodeFlow flow = createFlow();
-        GoogleTokenResponse tokenResponse = flow.newTokenRequest(authCode)
-                .setRedirectUri(redirectUri)
-                .execute();
+        GoogleAuthorizationCodeFlow flow = getFlow();
+        GoogleTokenResponse tokenResponse = outboundCallLimiter.call(OutboundProvider.GOOGLE,
+                flow.newTokenRequest(authCode).setRedirectUri(redirectUri)::execute);
 
         // Get user info to store email
         Credential credential = flow.createAndStoreCredential(tokenResponse, userEmail);
@@ -102,13 +159,13 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
         String googleEmail;
         try {
             Oauth2 oauth2 = new Oauth2.Builder(
-                    GoogleNetHttpTransport.newTrustedTransport(),
+                    googleHttpTransport,
                     JSON_FACTORY,
                     credential)
                     .setApplicationName(APPLICATION_NAME)
                     .build();
 
-            Userinfo userinfo = oauth2.userinfo().get().execute();
+            Userinfo userinfo = execute(oauth2.userinfo().get());
             googleEmail = userinfo.getEmail();
 
             log.info("Retrieved Google email: {} for user: {}", googleEmail, userEmail);
@@ -117,10 +174,6 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
             googleEmail = userEmail; // Fallback to provided email
         }
 
-        // Delete existing token if any
-        calendarTokenRepository.findByAppUserAndProvider(user, PROVIDER_GOOGLE)
-                .ifPresent(calendarTokenRepository::delete);
-
         // Save new token
         CalendarToken token = new CalendarToken();
         token.setAppUser(user);
@@ -129,8 +182,10 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
         token.setRefreshToken(tokenResponse.getRefreshToken());
         token.setExpiresAt(LocalDateTime.now().plusSeconds(tokenResponse.getExpiresInSeconds()));
         token.setEmail(googleEmail); // Store the actual Google email
+        scheduleNextRefresh(token);
 
-        CalendarToken savedToken = calendarTokenRepository.save(token);
+        CalendarToken savedToken = replaceToken(user, token);
+        calendarClients.invalidate(userEmail);
 
         return new CalendarTokenResponseDto(
                 true,
@@ -141,18 +196,17 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CalendarTokenResponseDto saveAccessToken(String accessToken, String userEmail)
             throws IOException, GeneralSecurityException {
 
-        AppUser user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        AppUser user = inReadOnlyTransaction(status -> userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found")));
 
         // Create credential with the access token
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
-        
         Credential credential = new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
                 .setJsonFactory(JSON_FACTORY)
-                .setTransport(httpTransport)
+                .setTransport(googleHttpTransport)
                 .build();
         
         credential.setAccessToken(accessToken);
@@ -161,13 +215,13 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
         String googleEmail;
         try {
             Oauth2 oauth2 = new Oauth2.Builder(
-                    httpTransport,
+                    googleHttpTransport,
                     JSON_FACTORY,
                     credential)
                     .setApplicationName(APPLICATION_NAME)
                     .build();
 
-            Userinfo userinfo = oauth2.userinfo().get().execute();
+            Userinfo userinfo = execute(oauth2.userinfo().get());
             googleEmail = userinfo.getEmail();
 
             log.info("Retrieved Google email: {} for user: {}", googleEmail, userEmail);
@@ -176,10 +230,6 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
             googleEmail = userEmail; // Fallback to provided email
         }
 
-        // Delete existing token if any
-        calendarTokenRepository.findByAppUserAndProvider(user, PROVIDER_GOOGLE)
-                .ifPresent(calendarTokenRepository::delete);
-
         // Save new token
         CalendarToken token = new CalendarToken();
         token.setAppUser(user);
@@ -191,7 +241,8 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
         token.setExpiresAt(LocalDateTime.now().plusHours(1));
         token.setEmail(googleEmail);
 
-        CalendarToken savedToken = calendarTokenRepository.save(token);
+        CalendarToken savedToken = replaceToken(user, token);
+        calendarClients.invalidate(userEmail);
 
         return new CalendarTokenResponseDto(
                 true,
@@ -202,78 +253,30 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public GoogleCalendarEventDto createCalendarEvent(Appointment appointment, String userEmail)
             throws IOException, GeneralSecurityException {
 
-        Calendar calendarService = getCalendarService(userEmail);
-        AppUser user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Event event = new Event()
-                .setSummary(appointment.getService().getName() + " Appointment")
-                .setDescription(buildEventDescription(appointment));
-
-        if (appointment.getLocation() != null) {
-            event.setLocation(appointment.getLocation());
-        }
-
-        DateTime startDateTime = new DateTime(
-                appointment.getSlot().getStartTime()
-                        .atZone(ZoneId.systemDefault())
-                        .toInstant()
-                        .toEpochMilli()
-        );
-
-        DateTime endDateTime = new DateTime(
-                appointment.getSlot().getEndTime()
-                        .atZone(ZoneId.systemDefault())
-                        .toInstant()
-                        .toEpochMilli()
-        );
-
-        EventDateTime start = new EventDateTime()
-                .setDateTime(startDateTime)
-                .setTimeZone(ZoneId.systemDefault().getId());
-        event.setStart(start);
-
-        EventDateTime end = new EventDateTime()
-                .setDateTime(endDateTime)
-                .setTimeZone(ZoneId.systemDefault().getId());
-        event.setEnd(end);
-
-        EventReminder[] reminderOverrides = new EventReminder[] {
-                new EventReminder().setMethod("email").setMinutes(24 * 60), // 1 day before
-                new EventReminder().setMethod("popup").setMinutes(60), // 1 hour before
-        };
-
-        Event.Reminders reminders = new Event.Reminders()
-                .setUseDefault(false)
-                .setOverrides(List.of(reminderOverrides));
-        event.setReminders(reminders);
+        CalendarToken token = getActiveToken(userEmail);
+        Calendar calendarService = getCalendarClient(token, userEmail);
 
+        Event event = buildNewEvent(appointment);
 
-        String calendarId = "primary";
-        Event createdEvent = calendarService.events().insert(calendarId, event).execute();
-
-        CalendarEvent calendarEvent = new CalendarEvent();
-        calendarEvent.setAppointment(appointment);
-        calendarEvent.setAppUser(user);
-        calendarEvent.setProvider(PROVIDER_GOOGLE);
-        calendarEvent.setExternalEventId(createdEvent.getId());
-        calendarEvent.setCalendarId(calendarId);
-        calendarEvent.setSynced(true);
+        Event createdEvent = execute(calendarService.events().insert(PRIMARY_CALENDAR_ID, event));
 
-        calendarEventRepository.save(calendarEvent);
+        // save runs in its own transaction
+        calendarEventRepository.save(toCalendarEvent(appointment, token.getAppUser(), createdEvent));
 
-        return mapToEventDto(createdEvent, calendarId);
+        return mapToEventDto(createdEvent, PRIMARY_CALENDAR_ID);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public GoogleCalendarEventDto updateCalendarEvent(Appointment appointment, String userEmail)
             throws IOException, GeneralSecurityException {
 
-        Optional<CalendarEvent> calendarEventOpt = calendarEventRepository
-                .findByAppointmentAndProvider(appointment, PROVIDER_GOOGLE);
+        Optional<CalendarEvent> calendarEventOpt = inReadOnlyTransaction(status -> calendarEventRepository
+                .findByAppointmentAndProvider(appointment, PROVIDER_GOOGLE));
 
         if (calendarEventOpt.isEmpty()) {
             return createCalendarEvent(appointment, userEmail);
@@ -282,52 +285,28 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
         CalendarEvent calendarEvent = calendarEventOpt.get();
         Calendar calendarService = getCalendarService(userEmail);
 
-        Event existingEvent = calendarService.events()
-                .get(calendarEvent.getCalendarId(), calendarEvent.getExternalEventId())
-                .execute();
-
-        existingEvent.setSummary(appointment.getService().getName() + " Appointment")
-                .setDescription(buildEventDescription(appointment))
-                .setLocation(appointment.getLocation());
-
-
-        DateTime startDateTime = new DateTime(
-                appointment.getSlot().getStartTime()
-                        .atZone(ZoneId.systemDefault())
-                        .toInstant()
-                        .toEpochMilli()
-        );
-
-        DateTime endDateTime = new DateTime(
-                appointment.getSlot().getEndTime()
-                        .atZone(ZoneId.systemDefault())
-                        .toInstant()
-                        .toEpochMilli()
-        );
-
-        EventDateTime start = new EventDateTime()
-                .setDateTime(startDateTime)
-                .setTimeZone(ZoneId.systemDefault().getId());
-        existingEvent.setStart(start);
-
-        EventDateTime end = new EventDateTime()
-                .setDateTime(endDateTime)
-                .setTimeZone(ZoneId.systemDefault().getId());
-        existingEvent.setEnd(end);
-
-        Event updatedEvent = calendarService.events()
-                .update(calendarEvent.getCalendarId(), calendarEvent.getExternalEventId(), existingEvent)
-                .execute();
+        Event updatedEvent;
+        try {
+            updatedEvent = patchEvent(calendarService, calendarEvent, appointment, calendarEvent.getEtag());
+        } catch (CalendarEventConflictException e) {
+            // Edited in Google since we last wrote or pulled it. The booking is authoritative for the
+            // fields we send, so reapply them on top of the current version; other edits are kept.
+            Event current = execute(calendarService.events()
+                    .get(calendarEvent.getCalendarId(), calendarEvent.getExternalEventId()));
+            log.info("{}, reapplying the appointment on top of the current version", e.getReason());
+            updatedEvent = patchEvent(calendarService, calendarEvent, appointment, current.getEtag());
+        }
 
         return mapToEventDto(updatedEvent, calendarEvent.getCalendarId());
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteCalendarEvent(Appointment appointment, String userEmail)
             throws IOException, GeneralSecurityException {
 
-        Optional<CalendarEvent> calendarEventOpt = calendarEventRepository
-                .findByAppointmentAndProvider(appointment, PROVIDER_GOOGLE);
+        Optional<CalendarEvent> calendarEventOpt = inReadOnlyTransaction(status -> calendarEventRepository
+                .findByAppointmentAndProvider(appointment, PROVIDER_GOOGLE));
 
         if (calendarEventOpt.isEmpty()) {
             log.warn("No calendar event found for appointment {}", appointment.getAppointmentId());
@@ -338,9 +317,8 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
         Calendar calendarService = getCalendarService(userEmail);
 
         try {
-            calendarService.events()
-                    .delete(calendarEvent.getCalendarId(), calendarEvent.getExternalEventId())
-                    .execute();
+            execute(calendarService.events()
+                    .delete(calendarEvent.getCalendarId(), calendarEvent.getExternalEventId()));
         } catch (Exception e) {
             log.warn("Failed to delete event from Google Calendar: {}", e.getMessage());
         }
@@ -349,12 +327,13 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<GoogleCalendarEventDto> getUserCalendars(String userEmail)
             throws IOException, GeneralSecurityException {
 
         Calendar calendarService = getCalendarService(userEmail);
 
-        CalendarList calendarList = calendarService.calendarList().list().execute();
+        CalendarList calendarList = execute(calendarService.calendarList().list());
 
         return calendarList.getItems().stream()
                 .map(calendar -> new GoogleCalendarEventDto(
@@ -372,13 +351,18 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
 
     @Override
     public boolean isUserConnectedToGoogleCalendar(String userEmail) {
-        AppUser user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Optional<CalendarToken> tokenOpt = calendarTokenRepository
-                .findByAppUserAndProvider(user, PROVIDER_GOOGLE);
+        // One existence query instead of loading the user and then the token
+        return calendarTokenRepository.existsByAppUserEmailAndProviderAndExpiresAtAfter(
+                userEmail, PROVIDER_GOOGLE, LocalDateTime.now());
+    }
 
-        return tokenOpt.isPresent() && tokenOpt.get().getExpiresAt().isAfter(LocalDateTime.now());
+    @Override
+    public Set<String> findUsersConnectedToGoogleCalendar(Collection<String> userEmails) {
+        if (userEmails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(calendarTokenRepository.findConnectedEmails(
+                userEmails, PROVIDER_GOOGLE, LocalDateTime.now()));
     }
 
     @Override
@@ -387,6 +371,7 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         calendarTokenRepository.deleteByAppUserAndProvider(user, PROVIDER_GOOGLE);
+        calendarClients.invalidate(userEmail);
 
         // Also delete all calendar events for this user
         List<CalendarEvent> events = calendarEventRepository.findByAppUserAndProvider(user, PROVIDER_GOOGLE);
@@ -394,53 +379,22 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void refreshAccessTokenIfNeeded(String userEmail) throws IOException, GeneralSecurityException {
-        AppUser user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Optional<CalendarToken> tokenOpt = calendarTokenRepository
-                .findByAppUserAndProvider(user, PROVIDER_GOOGLE);
-
-        if (tokenOpt.isEmpty()) {
-            throw new RuntimeException("No Google Calendar token found for user");
-        }
+        CalendarToken token = inReadOnlyTransaction(status -> calendarTokenRepository
+                .findByAppUserEmailAndProvider(userEmail, PROVIDER_GOOGLE)
+                .orElseThrow(() -> new RuntimeException("No Google Calendar token found for user")));
 
-        CalendarToken token = tokenOpt.get();
-
-        // Check if token is expired or expires soon (within 5 minutes)
-        if (token.getExpiresAt().isBefore(LocalDateTime.now().plusMinutes(5))) {
-            // If we don't have a refresh token (implicit flow), we can't refresh
-            if (token.getRefreshToken() == null) {
-                log.warn("Cannot refresh token for user {} - no refresh token available (implicit flow)", userEmail);
-                // Delete the expired token
-                calendarTokenRepository.delete(token);
-                throw new RuntimeException("Token expired and cannot be refreshed. Please reconnect Google Calendar.");
-            }
-
-            GoogleAuthorizationCodeFlow flow = createFlow();
-
-            try {
-                GoogleTokenResponse tokenResponse = flow.newTokenRequest(token.getRefreshToken())
-                        .setGrantType("refresh_token")
-                        .execute();
-
-                // Update token
-                token.setAccessToken(tokenResponse.getAccessToken());
-                token.setExpiresAt(LocalDateTime.now().plusSeconds(tokenResponse.getExpiresInSeconds()));
-
-                if (tokenResponse.getRefreshToken() != null) {
-                    token.setRefreshToken(tokenResponse.getRefreshToken());
-                }
-
-                calendarTokenRepository.save(token);
+        refreshIfNeeded(token, userEmail);
+    }
 
-            } catch (Exception e) {
-                log.error("Failed to refresh Google Calendar token for user {}: {}", userEmail, e.getMessage());
-                // Delete invalid token
-                calendarTokenRepository.delete(token);
-                throw new RuntimeException("Failed to refresh Google Calendar token", e);
-            }
-        }
+    /**
+     * Refreshes regardless of expiry, for the refresh scheduler which loads the token with its owner
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void refreshAccessToken(CalendarToken token) {
+        refresh(token, token.getAppUser().getEmail());
     }
 
     @Override
@@ -495,45 +449,36 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
         }
     }
 
+    /**
+     * Pushes all unsynced future appointments in Google batch requests and reports the outcome
+     * of each insert. No transaction or connection is held while Google is called: the token and
+     * pending appointments are read in short read-only transactions and the created events are
+     * stored in another one.
+     */
     @Override
-    @Transactional
-    public int syncExistingAppointments(String userEmail) {
-        int syncedCount = 0;
-
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CalendarBulkSyncResultDto syncExistingAppointments(String userEmail) {
         try {
-            if (!isUserConnectedToGoogleCalendar(userEmail)) {
-                throw new RuntimeException("User is not connected to Google Calendar");
-            }
+            CalendarToken token = getActiveToken(userEmail);
+            AppUser user = token.getAppUser();
+            Calendar calendarService = getCalendarClient(token, userEmail);
 
-            AppUser user = userRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            List<Appointment> pendingAppointments = inReadOnlyTransaction(status -> findUnsyncedAppointments(user));
 
-            List<Appointment> futureAppointments = appointmentRepository
-                    .findByAppUserAndScheduledAtAfterAndStatusNameNot(
-                            user,
-                            LocalDate.now(),
-                            "CANCELLED"
-                    );
+            List<CalendarEvent> createdEvents = new ArrayList<>();
+            Map<Integer, String> failures = new LinkedHashMap<>();
 
-            for (Appointment appointment : futureAppointments) {
-                try {
-                    boolean alreadySynced = calendarEventRepository
-                            .findByAppointmentAndProvider(appointment, PROVIDER_GOOGLE)
-                            .isPresent();
-
-                    if (!alreadySynced && appointment.getSlot() != null) {
-                        createCalendarEvent(appointment, userEmail);
-                        syncedCount++;
-                        log.info("Synced appointment {} to Google Calendar", appointment.getAppointmentId());
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to sync appointment {}: {}",
-                            appointment.getAppointmentId(), e.getMessage());
-                }
+            for (int from = 0; from < pendingAppointments.size(); from += MAX_BATCH_SIZE) {
+                List<Appointment> chunk = pendingAppointments
+                        .subList(from, Math.min(from + MAX_BATCH_SIZE, pendingAppointments.size()));
+                executeInsertBatch(calendarService, chunk, user, createdEvents, failures);
             }
 
-            log.info("Successfully synced {} appointments for user {}", syncedCount, userEmail);
-            return syncedCount;
+            // saveAll runs in its own transaction
+            calendarEventRepository.saveAll(createdEvents);
+
+            log.info("Synced {} appointments for user {} ({} failed)", createdEvents.size(), userEmail, failures.size());
+            return new CalendarBulkSyncResultDto(createdEvents.size(), failures.size(), failures);
 
         } catch (Exception e) {
             log.error("Error syncing existing appointments for user {}: ", userEmail, e);
@@ -541,60 +486,418 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
         }
     }
 
+    /**
+     * Pulls only the events changed since the last pull, using the stored sync token. Events we
+     * track that were deleted in Google are unlinked. Events that were moved are moved back,
+     * because the booked slot is authoritative. Changes are handled a page at a time, and the
+     * first full sync only lists events that have not ended before today. Each change is stored in
+     * a transaction of its own, so no connection is held while pages are fetched.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CalendarPullResultDto pullCalendarChanges(String userEmail) throws IOException {
+        CalendarToken token = getActiveToken(userEmail);
+        Calendar calendarService = getCalendarClient(token, userEmail);
+
+        Map<String, CalendarEvent> trackedEvents = new HashMap<>();
+        inReadOnlyTransaction(status -> calendarEventRepository.findByAppUserAndProvider(token.getAppUser(), PROVIDER_GOOGLE))
+                .forEach(calendarEvent -> trackedEvents.put(calendarEvent.getExternalEventId(), calendarEvent));
+
+        CalendarPullResultDto result = new CalendarPullResultDto(0, 0, 0, token.getSyncToken() == null);
+        EventPageHandler applyPage = events -> applyPulledChanges(calendarService, events, trackedEvents, result);
+
+        String nextSyncToken;
+        try {
+            nextSyncToken = listChangedEvents(calendarService, token.getSyncToken(), applyPage);
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() != HTTP_GONE) {
+                throw e;
+            }
+            // Google invalidated the sync token, so start over with a full listing
+            log.info("Google Calendar sync token expired for user {}, running full sync", userEmail);
+            result.setFullResync(true);
+            nextSyncToken = listChangedEvents(calendarService, null, applyPage);
+        }
+
+        token.setSyncToken(nextSyncToken);
+        calendarTokenRepository.save(token);
+
+        return result;
+    }
+
     // Helper methods
-    private GoogleAuthorizationCodeFlow createFlow() throws IOException, GeneralSecurityException {
-        GoogleClientSecrets clientSecrets = new GoogleClientSecrets()
-                .setInstalled(new GoogleClientSecrets.Details()
-                        .setClientId(clientId)
-                        .setClientSecret(clientSecret));
-
-        return new GoogleAuthorizationCodeFlow.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                JSON_FACTORY,
-                clientSecrets,
-                Arrays.asList(
-                        CalendarScopes.CALENDAR,
-                        "https://www.googleapis.com/auth/userinfo.email"
-                ))
-                .setAccessType("offline")
-                .setApprovalPrompt("force")
-                .build();
+    private GoogleAuthorizationCodeFlow getFlow() {
+        GoogleAuthorizationCodeFlow result = flow;
+        if (result == null) {
+            synchronized (this) {
+                result = flow;
+                if (result == null) {
+                    GoogleClientSecrets clientSecrets = new GoogleClientSecrets()
+                            .setInstalled(new GoogleClientSecrets.Details()
+                                    .setClientId(clientId)
+                                    .setClientSecret(clientSecret));
+
+                    result = new GoogleAuthorizationCodeFlow.Builder(
+                            googleHttpTransport,
+                            JSON_FACTORY,
+                            clientSecrets,
+                            Arrays.asList(
+                                    CalendarScopes.CALENDAR,
+                                    "https://www.googleapis.com/auth/userinfo.email"
+                            ))
+                            .setTokenServerUrl(new GenericUrl(tokenServerUrl))
+                            .setAccessType("offline")
+                            .setApprovalPrompt("force")
+                            .build();
+                    flow = result;
+                }
+            }
+        }
+        return result;
     }
 
-    private Calendar getCalendarService(String userEmail) throws IOException, GeneralSecurityException {
-        AppUser user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private CalendarToken getActiveToken(String userEmail) {
+        CalendarToken token = inReadOnlyTransaction(status -> findToken(userEmail));
+        refreshIfNeeded(token, userEmail);
+        return token;
+    }
 
-        CalendarToken token = calendarTokenRepository.findByAppUserAndProvider(user, PROVIDER_GOOGLE)
+    private CalendarToken findToken(String userEmail) {
+        return calendarTokenRepository.findByAppUserEmailAndProvider(userEmail, PROVIDER_GOOGLE)
                 .orElseThrow(() -> new RuntimeException("No Google Calendar token found"));
+    }
+
+    private void refreshIfNeeded(CalendarToken token, String userEmail) {
+        // Check if token is expired or expires soon (within 5 minutes)
+        if (!token.getExpiresAt().isBefore(LocalDateTime.now().plusMinutes(5))) {
+            return;
+        }
+
+        refresh(token, userEmail);
+    }
 
-        // Refresh token if needed
-        refreshAccessTokenIfNeeded(userEmail);
+    private void refresh(CalendarToken token, String userEmail) {
+        calendarClients.invalidate(userEmail);
 
-        // Reload token after potential refresh
-        token = calendarTokenRepository.findByAppUserAndProvider(user, PROVIDER_GOOGLE)
-                .orElseThrow(() -> new RuntimeException("No Google Calendar token found"));
+        // If we don't have a refresh token (implicit flow), we can't refresh
+        if (token.getRefreshToken() == null) {
+            log.warn("Cannot refresh token for user {} - no refresh token available (implicit flow)", userEmail);
+            // Delete the expired token
+            deleteUnrefreshableToken(token);
+            throw new RuntimeException("Token expired and cannot be refreshed. Please reconnect Google Calendar.");
+        }
+
+        try {
+            GoogleTokenResponse tokenResponse = outboundCallLimiter.call(OutboundProvider.GOOGLE,
+                    getFlow().newTokenRequest(token.getRefreshToken()).setGrantType("refresh_token")::execute);
+
+            // Update token
+            token.setAccessToken(tokenResponse.getAccessToken());
+            token.setExpiresAt(LocalDateTime.now().plusSeconds(tokenResponse.getExpiresInSeconds()));
+
+            if (tokenResponse.getRefreshToken() != null) {
+                token.setRefreshToken(tokenResponse.getRefreshToken());
+            }
+
+            scheduleNextRefresh(token);
+            calendarTokenRepository.save(token);
 
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+        } catch (Exception e) {
+            log.error("Failed to refresh Google Calendar token for user {}: {}", userEmail, e.getMessage());
+            // Delete invalid token
+            deleteUnrefreshableToken(token);
+            throw new RuntimeException("Failed to refresh Google Calendar token", e);
+        }
+    }
+
+    // Commits on its own even inside a caller's transaction, which the exception thrown afterwards
+    // rolls back. A token left behind would still be due and be retried on every poll.
+    private void deleteUnrefreshableToken(CalendarToken token) {
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        newTransaction.executeWithoutResult(status -> calendarTokenRepository.deleteById(token.getTokenId()));
+    }
+
+    // Replaces the user's token in one transaction, after the calls to Google are done
+    private CalendarToken replaceToken(AppUser user, CalendarToken token) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            calendarTokenRepository.findByAppUserAndProvider(user, PROVIDER_GOOGLE)
+                    .ifPresent(calendarTokenRepository::delete);
+            return calendarTokenRepository.save(token);
+        });
+    }
 
-        GoogleAuthorizationCodeFlow flow = createFlow();
+    // Methods that call Google run without a transaction and read through this one. A query run
+    // directly in that non-transactional scope would open an EntityManager that keeps its connection
+    // until the method returns, Google calls included. Writes go through repository methods, which
+    // are transactional on their own.
+    private <T> T inReadOnlyTransaction(TransactionCallback<T> action) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return readOnlyTransaction.execute(action);
+    }
+
+    // Jitter spreads refreshes of tokens issued together (e.g. after a restart) over several minutes
+    private void scheduleNextRefresh(CalendarToken token) {
+        if (token.getRefreshToken() == null) {
+            token.setNextRefreshAt(null);
+            return;
+        }
+
+        long jitterSeconds = ThreadLocalRandom.current().nextLong(REFRESH_JITTER.toSeconds() + 1);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextRefreshAt = token.getExpiresAt().minus(REFRESH_LEAD).minusSeconds(jitterSeconds);
+        token.setNextRefreshAt(nextRefreshAt.isAfter(now) ? nextRefreshAt : now);
+    }
+
+    private <T> T execute(AbstractGoogleClientRequest<T> request) throws IOException {
+        return outboundCallLimiter.call(OutboundProvider.GOOGLE, request::execute);
+    }
+
+    private Calendar getCalendarService(String userEmail) {
+        return getCalendarClient(getActiveToken(userEmail), userEmail);
+    }
+
+    private Calendar getCalendarClient(CalendarToken token, String userEmail) {
+        CachedCalendarClient cached = calendarClients.getIfPresent(userEmail);
+        if (cached != null && cached.accessToken().equals(token.getAccessToken())) {
+            return cached.client();
+        }
+
+        GoogleAuthorizationCodeFlow authFlow = getFlow();
 
         Credential credential = new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
                 .setJsonFactory(JSON_FACTORY)
-                .setTransport(httpTransport)
-                .setClientAuthentication(flow.getClientAuthentication())
-                .setTokenServerUrl(new GenericUrl(flow.getTokenServerEncodedUrl()))
+                .setTransport(googleHttpTransport)
+                .setClientAuthentication(authFlow.getClientAuthentication())
+                .setTokenServerUrl(new GenericUrl(authFlow.getTokenServerEncodedUrl()))
                 .build();
 
         credential.setAccessToken(token.getAccessToken());
         credential.setRefreshToken(token.getRefreshToken());
 
-        return new Calendar.Builder(
-                httpTransport,
+        Calendar client = new Calendar.Builder(
+                googleHttpTransport,
                 JSON_FACTORY,
                 credential)
+                .setRootUrl(calendarRootUrl)
                 .setApplicationName(APPLICATION_NAME)
                 .build();
+
+        calendarClients.put(userEmail, new CachedCalendarClient(token.getAccessToken(), client));
+        return client;
+    }
+
+    // Associations used to build the events are eager, so the result can be used after the transaction
+    private List<Appointment> findUnsyncedAppointments(AppUser user) {
+        Set<Integer> syncedAppointmentIds = calendarEventRepository
+                .findAppointmentIdsByAppUserAndProvider(user, PROVIDER_GOOGLE);
+
+        return appointmentRepository
+                .findByAppUserAndScheduledAtAfterAndStatusNameNot(
+                        user,
+                        LocalDate.now(),
+                        "CANCELLED"
+                )
+                .stream()
+                .filter(appointment -> appointment.getSlot() != null)
+                .filter(appointment -> !syncedAppointmentIds.contains(appointment.getAppointmentId()))
+                .toList();
+    }
+
+    private Event buildNewEvent(Appointment appointment) {
+        Event event = new Event()
+                .setSummary(appointment.getService().getName() + " Appointment")
+                .setDescription(buildEventDescription(appointment));
+
+        if (appointment.getLocation() != null) {
+            event.setLocation(appointment.getLocation());
+        }
+
+        event.setStart(toEventDateTime(appointment.getSlot().getStartTime()));
+        event.setEnd(toEventDateTime(appointment.getSlot().getEndTime()));
+
+        EventReminder[] reminderOverrides = new EventReminder[] {
+                new EventReminder().setMethod("email").setMinutes(24 * 60), // 1 day before
+                new EventReminder().setMethod("popup").setMinutes(60), // 1 hour before
+        };
+
+        Event.Reminders reminders = new Event.Reminders()
+                .setUseDefault(false)
+                .setOverrides(List.of(reminderOverrides));
+        event.setReminders(reminders);
+
+        return event;
+    }
+
+    private void executeInsertBatch(Calendar calendarService, List<Appointment> appointments, AppUser user,
+                                    List<CalendarEvent> createdEvents, Map<Integer, String> failures)
+            throws IOException {
+        BatchRequest batch = calendarService.batch();
+
+        for (Appointment appointment : appointments) {
+            calendarService.events()
+                    .insert(PRIMARY_CALENDAR_ID, buildNewEvent(appointment))
+                    .queue(batch, new JsonBatchCallback<Event>() {
+                        @Override
+                        public void onSuccess(Event createdEvent, HttpHeaders responseHeaders) {
+                            createdEvents.add(toCalendarEvent(appointment, user, createdEvent));
+                        }
+
+                        @Override
+                        public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                            log.error("Failed to sync appointment {}: {}",
+                                    appointment.getAppointmentId(), error.getMessage());
+                            failures.put(appointment.getAppointmentId(), error.getMessage());
+                        }
+                    });
+        }
+
+        try {
+            outboundCallLimiter.call(OutboundProvider.GOOGLE, () -> {
+                batch.execute();
+                return null;
+            });
+        } catch (IOException e) {
+            // The whole batch failed; report every appointment that has no outcome yet
+            log.error("Calendar batch request failed: {}", e.getMessage());
+            for (Appointment appointment : appointments) {
+                boolean created = createdEvents.stream()
+                        .anyMatch(event -> event.getAppointment() == appointment);
+                if (!created) {
+                    failures.putIfAbsent(appointment.getAppointmentId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private CalendarEvent toCalendarEvent(Appointment appointment, AppUser user, Event createdEvent) {
+        CalendarEvent calendarEvent = new CalendarEvent();
+        calendarEvent.setAppointment(appointment);
+        calendarEvent.setAppUser(user);
+        calendarEvent.setProvider(PROVIDER_GOOGLE);
+        calendarEvent.setExternalEventId(createdEvent.getId());
+        calendarEvent.setCalendarId(PRIMARY_CALENDAR_ID);
+        calendarEvent.setEtag(createdEvent.getEtag());
+        calendarEvent.setSynced(true);
+        return calendarEvent;
+    }
+
+    private void applyPulledChanges(Calendar calendarService, List<Event> events,
+                                    Map<String, CalendarEvent> trackedEvents, CalendarPullResultDto result)
+            throws IOException {
+        for (Event event : events) {
+            CalendarEvent tracked = trackedEvents.get(event.getId());
+            // Skip events we don't manage and echoes of our own writes
+            if (tracked == null || Objects.equals(tracked.getEtag(), event.getEtag())) {
+                continue;
+            }
+            result.setChangedCount(result.getChangedCount() + 1);
+
+            if ("cancelled".equals(event.getStatus())) {
+                log.info("Google Calendar event for appointment {} was deleted externally",
+                        tracked.getAppointment().getAppointmentId());
+                calendarEventRepository.delete(tracked);
+                result.setDeletedCount(result.getDeletedCount() + 1);
+            } else if (isMoved(event, tracked.getAppointment())) {
+                log.info("Google Calendar event for appointment {} was moved externally, restoring it",
+                        tracked.getAppointment().getAppointmentId());
+                try {
+                    patchEvent(calendarService, tracked, tracked.getAppointment(), event.getEtag());
+                    result.setMovedCount(result.getMovedCount() + 1);
+                } catch (CalendarEventConflictException e) {
+                    // Edited again since it was listed; that edit shows up in the next pull
+                    log.info(e.getReason());
+                }
+            } else {
+                tracked.setEtag(event.getEtag());
+                calendarEventRepository.save(tracked);
+            }
+        }
+    }
+
+    // Sends only the fields we own, so no GET is needed before the write. The write only applies
+    // if the event still has the expected ETag, so edits made in Google are never overwritten blindly.
+    private Event patchEvent(Calendar calendarService, CalendarEvent calendarEvent, Appointment appointment,
+                             String expectedEtag) throws IOException {
+        Event patch = new Event()
+                .setSummary(appointment.getService().getName() + " Appointment")
+                .setDescription(buildEventDescription(appointment))
+                .setLocation(appointment.getLocation())
+                .setStart(toEventDateTime(appointment.getSlot().getStartTime()))
+                .setEnd(toEventDateTime(appointment.getSlot().getEndTime()));
+
+        Calendar.Events.Patch request = calendarService.events()
+                .patch(calendarEvent.getCalendarId(), calendarEvent.getExternalEventId(), patch);
+        if (expectedEtag != null) {
+            request.setRequestHeaders(new HttpHeaders().setIfMatch(expectedEtag));
+        }
+
+        Event updatedEvent;
+        try {
+            updatedEvent = execute(request);
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() != HTTP_PRECONDITION_FAILED) {
+                throw e;
+            }
+            throw new CalendarEventConflictException("Google Calendar event for appointment "
+                    + appointment.getAppointmentId() + " was changed in Google since it was last synced");
+        }
+
+        calendarEvent.setEtag(updatedEvent.getEtag());
+        calendarEvent.setSynced(true);
+        calendarEventRepository.save(calendarEvent);
+        return updatedEvent;
+    }
+
+    // Hands each page to the handler as it arrives. A full sync (no sync token) is bounded to events
+    // ending today or later; Google does not allow timeMin together with a sync token.
+    private String listChangedEvents(Calendar calendarService, String syncToken, EventPageHandler handler)
+            throws IOException {
+        String pageToken = null;
+        Events page;
+        do {
+            Calendar.Events.List request = calendarService.events()
+                    .list(PRIMARY_CALENDAR_ID)
+                    .setMaxResults(SYNC_PAGE_SIZE)
+                    .setPageToken(pageToken);
+            if (syncToken != null) {
+                request.setSyncToken(syncToken);
+            } else {
+                request.setTimeMin(new DateTime(toEpochMilli(LocalDate.now().atStartOfDay())));
+            }
+
+            page = execute(request);
+            if (page.getItems() != null) {
+                handler.accept(page.getItems());
+            }
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        return page.getNextSyncToken();
+    }
+
+    private boolean isMoved(Event event, Appointment appointment) {
+        if (appointment.getSlot() == null) {
+            return false;
+        }
+        if (event.getStart() == null || event.getStart().getDateTime() == null
+                || event.getEnd() == null || event.getEnd().getDateTime() == null) {
+            return true; // turned into an all-day event
+        }
+
+        return event.getStart().getDateTime().getValue() != toEpochMilli(appointment.getSlot().getStartTime())
+                || event.getEnd().getDateTime().getValue() != toEpochMilli(appointment.getSlot().getEndTime());
+    }
+
+    private EventDateTime toEventDateTime(LocalDateTime dateTime) {
+        return new EventDateTime()
+                .setDateTime(new DateTime(toEpochMilli(dateTime)))
+                .setTimeZone(ZoneId.systemDefault().getId());
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     private String buildEventDescription(Appointment appointment) {
@@ -642,4 +945,12 @@ public class GoogleCalendarServiceImpl implements GoogleCalendarService {
                 event.getStatus()
         );
     }
+
+    private record CachedCalendarClient(String accessToken, Calendar client) {
+    }
+
+    @FunctionalInterface
+    private interface EventPageHandler {
+        void accept(List<Event> events) throws IOException;
+    }
 }
\ No newline at end of file
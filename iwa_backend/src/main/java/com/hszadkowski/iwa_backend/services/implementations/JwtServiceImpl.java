@@ -2,6 +2,7 @@ package com.hszadkowski.iwa_backend.services.implementations;
 
 import com.hszadkowski.iwa_backend.services.interfaces.JwtService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -25,13 +26,28 @@ public class JwtServiceImpl implements JwtService {
     @Value("${security.jwt.expiration-time}")
     private long jwtExpiration;
 
+    // Decoded key and parser are built once; the parser is immutable and thread-safe
+    private volatile Key signingKey;
+    private volatile JwtParser jwtParser;
+
     @Override
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Parses the token once, verifying its signature and expiry.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is invalid or expired.
+     */
+    @Override
+    public Claims parseAndValidate(String token) {
+        return getParser()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseAndValidate(token);
         return claimsResolver.apply(claims);
     }
 
@@ -68,30 +84,38 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        final Claims claims = parseAndValidate(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Built lazily so a misconfigured secret fails on first use, as before, rather than at startup
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            synchronized (this) {
+                if (jwtParser == null) {
+                    jwtParser = Jwts
+                            .parserBuilder()
+                            .setSigningKey(getSignInKey())
+                            .build();
+                }
+                parser = jwtParser;
+            }
+        }
+        return parser;
     }
 
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key key = signingKey;
+        if (key == null) {
+            synchronized (this) {
+                if (signingKey == null) {
+                    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+                    signingKey = Keys.hmacShaKeyFor(keyBytes);
+                }
+                key = signingKey;
+            }
+        }
+        return key;
     }
 }
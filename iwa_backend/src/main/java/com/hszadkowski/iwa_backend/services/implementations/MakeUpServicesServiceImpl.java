@@ -2,21 +2,25 @@ package com.hszadkowski.iwa_backend.services.implementations;
 
 import com.hszadkowski.iwa_backend.dto.CreateOrUpdateServiceDto;
 import com.hszadkowski.iwa_backend.dto.ServiceResponseDto;
+import com.hszadkowski.iwa_backend.events.ServiceCatalogChangedEvent;
 import com.hszadkowski.iwa_backend.exceptions.ServiceDoesNotExistException;
 import com.hszadkowski.iwa_backend.models.Service;
 import com.hszadkowski.iwa_backend.repos.ServiceRepository;
+import com.hszadkowski.iwa_backend.services.ServiceCatalogCache;
 import com.hszadkowski.iwa_backend.services.interfaces.MakeUpServicesService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
 @RequiredArgsConstructor
 @Transactional
 public class MakeUpServicesServiceImpl implements MakeUpServicesService {
     private final ServiceRepository serviceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ServiceCatalogCache serviceCatalogCache;
 
     @Override
     public ServiceResponseDto createService(CreateOrUpdateServiceDto request) {
@@ -29,6 +33,7 @@ public class MakeUpServicesServiceImpl implements MakeUpServicesService {
                 .build();
 
         Service savedService = serviceRepository.save(appService);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent(savedService.getServiceId(), false));
 
         return mapToResponseDto(savedService);
     }
@@ -46,25 +51,29 @@ public class MakeUpServicesServiceImpl implements MakeUpServicesService {
         toUpdate.setPrice(request.getPrice());
 
         Service updatedService = serviceRepository.save(toUpdate);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent(serviceId, false));
         return mapToResponseDto(updatedService);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ServiceResponseDto getServiceById(Integer serviceId) {
-        return serviceRepository.findById(serviceId)
-                .map(this::mapToResponseDto)
-                .orElseThrow(() -> new ServiceDoesNotExistException(
-                        "Service with ID " + serviceId + " not found"));
+        ServiceResponseDto service = serviceCatalogCache.get(serviceId);
+        if (service == null) {
+            throw new ServiceDoesNotExistException("Service with ID " + serviceId + " not found");
+        }
+        return service;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ServiceResponseDto> getAllServices() {
-        return serviceRepository.findAll()
-                .stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return serviceCatalogCache.getAll();
+    }
+
+    @Override
+    public String getCatalogETag() {
+        return serviceCatalogCache.getETag();
     }
 
     @Override
@@ -74,6 +83,7 @@ public class MakeUpServicesServiceImpl implements MakeUpServicesService {
                     "Cannot delete service with ID " + serviceId + " - service not found");
         }
         serviceRepository.deleteById(serviceId);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent(serviceId, true));
     }
 
     private ServiceResponseDto mapToResponseDto(Service service) {
@@ -0,0 +1,219 @@
+package com.hszadkowski.iwa_backend.services.implementations;
+
+import com.hszadkowski.iwa_backend.models.Appointment;
+import com.hszadkowski.iwa_backend.models.OutboxEvent;
+import com.hszadkowski.iwa_backend.models.OutboxEventStatus;
+import com.hszadkowski.iwa_backend.models.OutboxEventType;
+import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
+import com.hszadkowski.iwa_backend.repos.OutboxEventRepository;
+import com.hszadkowski.iwa_backend.services.interfaces.EmailService;
+import com.hszadkowski.iwa_backend.services.interfaces.GoogleCalendarService;
+import com.hszadkowski.iwa_backend.services.interfaces.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_SECONDS = 30;
+    // An IN_PROGRESS event whose dispatcher died becomes claimable again after this long
+    private static final long CLAIM_LEASE_SECONDS = 300;
+    private static final List<OutboxEventStatus> CLAIMABLE =
+            List.of(OutboxEventStatus.PENDING, OutboxEventStatus.IN_PROGRESS);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final EmailService emailService;
+    private final GoogleCalendarService googleCalendarService;
+
+    @Value("${outbox.dispatch.enabled:true}")
+    private boolean dispatchEnabled;
+
+    /**
+     * Joins the caller's transaction, so the event is only stored if the appointment change commits
+     */
+    @Override
+    public void enqueueEmail(OutboxEventType type, Appointment appointment, String to, String subject,
+                             String htmlBody, String calendarHtmlBody) {
+        OutboxEvent event = newEvent(type, appointment, to);
+        event.setSubject(subject);
+        event.setBody(htmlBody);
+        event.setCalendarBody(calendarHtmlBody);
+        outboxEventRepository.save(event);
+    }
+
+    @Override
+    public void enqueueCalendarAction(OutboxEventType type, Appointment appointment, String userEmail) {
+        outboxEventRepository.save(newEvent(type, appointment, userEmail));
+    }
+
+    /**
+     * Drains due events in batches. Each event is claimed with a conditional UPDATE before it is
+     * delivered, so overlapping runs or other instances never send the same event twice. Delivery
+     * happens outside of any surrounding transaction so a slow or failing provider only affects
+     * its own event. The outcome is written back only while this run still holds the claim.
+     * Which recipients have Google Calendar connected is looked up once per batch.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${outbox.dispatch.fixed-delay-ms:5000}")
+    public void dispatchPendingEvents() {
+        if (!dispatchEnabled) {
+            return;
+        }
+
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findDueEvents(
+                    CLAIMABLE, LocalDateTime.now(), PageRequest.of(0, BATCH_SIZE));
+            Set<String> calendarUsers = googleCalendarService.findUsersConnectedToGoogleCalendar(
+                    batch.stream().map(OutboxEvent::getRecipient).collect(Collectors.toSet()));
+
+            for (OutboxEvent event : batch) {
+                LocalDateTime leaseUntil = claim(event);
+                if (leaseUntil == null) {
+                    continue;
+                }
+                try {
+                    dispatch(event, calendarUsers.contains(event.getRecipient()));
+                    event.setStatus(OutboxEventStatus.SENT);
+                    event.setProcessedAt(LocalDateTime.now());
+                } catch (Exception e) {
+                    handleFailure(event, e);
+                }
+                complete(event, leaseUntil);
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+
+    /**
+     * Runs daily at 3 AM to remove delivered events older than a week
+     */
+    @Override
+    @Scheduled(cron = "0 0 3 * * *")
+    public void purgeProcessedEvents() {
+        int removed = outboxEventRepository.deleteProcessedBefore(
+                OutboxEventStatus.SENT, LocalDateTime.now().minusDays(7));
+        log.info("Purged {} delivered outbox events", removed);
+    }
+
+    // Helper methods
+
+    // Returns the lease end that identifies this claim, or null if another dispatcher holds the event
+    private LocalDateTime claim(OutboxEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        // Millisecond precision survives the round trip through any timestamp column unchanged
+        LocalDateTime leaseUntil = now.plusSeconds(CLAIM_LEASE_SECONDS).truncatedTo(ChronoUnit.MILLIS);
+        int claimed = outboxEventRepository.claimEvent(event.getOutboxEventId(), CLAIMABLE,
+                OutboxEventStatus.IN_PROGRESS, now, leaseUntil);
+        return claimed == 1 ? leaseUntil : null;
+    }
+
+    // Conditional on the claim, so a run whose lease expired cannot overwrite the state of the one that took over
+    private void complete(OutboxEvent event, LocalDateTime leaseUntil) {
+        int updated = outboxEventRepository.completeClaimedEvent(event.getOutboxEventId(),
+                OutboxEventStatus.IN_PROGRESS, leaseUntil, event.getStatus(), event.getAttempts(),
+                event.getLastError(), event.getNextAttemptAt(), event.getProcessedAt());
+        if (updated == 0) {
+            log.warn("Lost the claim on {} for appointment {} before recording its outcome ({})",
+                    event.getType(), event.getAppointmentId(), event.getStatus());
+        }
+    }
+
+    private OutboxEvent newEvent(OutboxEventType type, Appointment appointment, String recipient) {
+        LocalDateTime now = LocalDateTime.now();
+
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setStatus(OutboxEventStatus.PENDING);
+        event.setAppointmentId(appointment.getAppointmentId());
+        event.setRecipient(recipient);
+        event.setAttempts(0);
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        return event;
+    }
+
+    private void dispatch(OutboxEvent event, boolean calendarConnected) throws Exception {
+        if (event.getType().isEmail()) {
+            // Events queued before both variants were stored only carry the plain body
+            String body = calendarConnected && event.getCalendarBody() != null ? event.getCalendarBody() : event.getBody();
+            emailService.sendVerificationEmail(event.getRecipient(), event.getSubject(), body);
+            log.info("Sent {} for appointment {}", event.getType(), event.getAppointmentId());
+            return;
+        }
+
+        Appointment appointment = appointmentRepository.findById(event.getAppointmentId()).orElse(null);
+        if (appointment == null) {
+            log.warn("Skipping {} - appointment {} no longer exists", event.getType(), event.getAppointmentId());
+            return;
+        }
+
+        if (!calendarConnected) {
+            return;
+        }
+
+        // A create/update that was retried past a later cancellation must not resurrect the event
+        boolean cancelled = "CANCELLED".equals(appointment.getStatus().getName());
+
+        switch (event.getType()) {
+            case CALENDAR_CREATE:
+                if (!cancelled) {
+                    googleCalendarService.createCalendarEvent(appointment, event.getRecipient());
+                    log.info("Created Google Calendar event for appointment {}", appointment.getAppointmentId());
+                }
+                break;
+            case CALENDAR_UPDATE:
+                if (!cancelled) {
+                    googleCalendarService.updateCalendarEvent(appointment, event.getRecipient());
+                    log.info("Updated Google Calendar event for appointment {}", appointment.getAppointmentId());
+                }
+                break;
+            case CALENDAR_DELETE:
+                googleCalendarService.deleteCalendarEvent(appointment, event.getRecipient());
+                log.info("Deleted Google Calendar event for appointment {}", appointment.getAppointmentId());
+                break;
+            default:
+                log.warn("Unknown outbox event type: {}", event.getType());
+        }
+    }
+
+    private void handleFailure(OutboxEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(e.getMessage()));
+
+        if (attempts >= MAX_ATTEMPTS) {
+            event.setStatus(OutboxEventStatus.FAILED);
+            event.setProcessedAt(LocalDateTime.now());
+            log.error("Giving up on {} for appointment {} after {} attempts: {}",
+                    event.getType(), event.getAppointmentId(), attempts, e.getMessage());
+        } else {
+            event.setStatus(OutboxEventStatus.PENDING);
+            long backoffSeconds = BASE_BACKOFF_SECONDS << (attempts - 1);
+            event.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds));
+            log.warn("Failed to deliver {} for appointment {} (attempt {}), retrying in {}s: {}",
+                    event.getType(), event.getAppointmentId(), attempts, backoffSeconds, e.getMessage());
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -2,6 +2,7 @@ package com.hszadkowski.iwa_backend.services.implementations;
 
 import com.hszadkowski.iwa_backend.dto.UserProfileUpdateDto;
 import com.hszadkowski.iwa_backend.models.AppUser;
+import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
 import com.hszadkowski.iwa_backend.repos.UserRepository;
 import com.hszadkowski.iwa_backend.services.interfaces.UserService;
 import lombok.RequiredArgsConstructor;
@@ -9,11 +10,14 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     
     private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
     
     @Override
     public AppUser findByEmail(String email) {
@@ -30,6 +34,10 @@ public class UserServiceImpl implements UserService {
         user.setSurname(updateDto.getSurname());
         user.setPhoneNum(updateDto.getPhoneNum());
         
-        return userRepository.save(user);
+        AppUser savedUser = userRepository.save(user);
+
+        // The user's name is part of every appointment listing
+        appointmentRepository.touchByAppUser(savedUser, LocalDateTime.now());
+        return savedUser;
     }
 }
@@ -1,12 +1,15 @@
 package com.hszadkowski.iwa_backend.services.interfaces;
 
+import com.hszadkowski.iwa_backend.dto.AppointmentPageDto;
 import com.hszadkowski.iwa_backend.dto.AppointmentResponseDto;
 import com.hszadkowski.iwa_backend.dto.BookAppointmentDto;
+import com.hszadkowski.iwa_backend.dto.GetAppointmentsDto;
 import com.hszadkowski.iwa_backend.dto.RescheduleAppointmentDto;
 import com.hszadkowski.iwa_backend.dto.UpdateAppointmentStatusDto;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface AppointmentService {
 
@@ -16,7 +19,11 @@ public interface AppointmentService {
 
     List<AppointmentResponseDto> getAllAppointments();
 
-    AppointmentResponseDto getAppointmentById(Integer appointmentId);
+    AppointmentPageDto getAppointmentsPage(GetAppointmentsDto query);
+
+    void exportAppointments(GetAppointmentsDto query, Consumer<AppointmentResponseDto> consumer);
+
+    AppointmentResponseDto getAppointmentById(Integer appointmentId, String userEmail);
 
     void cancelAppointment(Integer appointmentId, String userEmail);
 
@@ -2,7 +2,9 @@ package com.hszadkowski.iwa_backend.services.interfaces;
 
 import com.hszadkowski.iwa_backend.dto.AvailabilitySlotResponseDto;
 import com.hszadkowski.iwa_backend.dto.CreateAvailabilitySlotDto;
+import com.hszadkowski.iwa_backend.dto.CreateRecurringAvailabilityDto;
 import com.hszadkowski.iwa_backend.dto.GetAvailableSlotsDto;
+import com.hszadkowski.iwa_backend.dto.RecurringAvailabilityResultDto;
 
 import java.util.List;
 
@@ -10,6 +12,8 @@ public interface AvailabilityService {
 
     AvailabilitySlotResponseDto createAvailabilitySlot(CreateAvailabilitySlotDto dto, String adminEmail);
 
+    RecurringAvailabilityResultDto createRecurringAvailability(CreateRecurringAvailabilityDto dto, String adminEmail);
+
     List<AvailabilitySlotResponseDto> getAvailableSlots(GetAvailableSlotsDto dto);
 
     List<AvailabilitySlotResponseDto> getAllSlots();
@@ -25,6 +29,4 @@ public interface AvailabilityService {
     boolean isSlotAvailable(Integer slotId);
 
     List<AvailabilitySlotResponseDto> getSlotsByService(Integer serviceId);
-
-    boolean canBookSlot(Integer slotId);
 }
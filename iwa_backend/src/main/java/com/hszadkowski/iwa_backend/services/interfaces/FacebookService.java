@@ -2,8 +2,12 @@ package com.hszadkowski.iwa_backend.services.interfaces;
 
 import com.hszadkowski.iwa_backend.dto.FacebookUserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface FacebookService {
     boolean validateFacebookToken(String accessToken);
 
     FacebookUserDto getFacebookUserInfo(String accessToken);
+
+    CompletableFuture<FacebookUserDto> getFacebookUserInfoAsync(String accessToken);
 }
\ No newline at end of file
@@ -2,7 +2,10 @@ package com.hszadkowski.iwa_backend.services.interfaces;
 
 import com.hszadkowski.iwa_backend.dto.GoogleUserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface GoogleAuthService {
     boolean validateGoogleToken(String accessToken);
     GoogleUserDto getGoogleUserInfo(String accessToken);
+    CompletableFuture<GoogleUserDto> getGoogleUserInfoAsync(String accessToken);
 }
@@ -1,13 +1,18 @@
 package com.hszadkowski.iwa_backend.services.interfaces;
 
+import com.hszadkowski.iwa_backend.dto.CalendarBulkSyncResultDto;
+import com.hszadkowski.iwa_backend.dto.CalendarPullResultDto;
 import com.hszadkowski.iwa_backend.dto.CalendarTokenResponseDto;
 import com.hszadkowski.iwa_backend.dto.GoogleCalendarEventDto;
 import com.hszadkowski.iwa_backend.models.Appointment;
 import com.hszadkowski.iwa_backend.models.AppUser;
+import com.hszadkowski.iwa_backend.models.CalendarToken;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface GoogleCalendarService {
 
@@ -27,13 +32,19 @@ public interface GoogleCalendarService {
 
     boolean isUserConnectedToGoogleCalendar(String userEmail);
 
+    Set<String> findUsersConnectedToGoogleCalendar(Collection<String> userEmails);
+
     void disconnectGoogleCalendar(String userEmail);
 
     void refreshAccessTokenIfNeeded(String userEmail) throws IOException, GeneralSecurityException;
 
+    void refreshAccessToken(CalendarToken token);
+
     CalendarTokenResponseDto getCalendarConnectionStatus(String userEmail);
 
     boolean isAppointmentSynced(Integer appointmentId, String userEmail);
 
-    int syncExistingAppointments(String userEmail);
+    CalendarBulkSyncResultDto syncExistingAppointments(String userEmail);
+
+    CalendarPullResultDto pullCalendarChanges(String userEmail) throws IOException, GeneralSecurityException;
 }
\ No newline at end of file
@@ -15,5 +15,7 @@ public interface MakeUpServicesService {
 
     List<ServiceResponseDto> getAllServices();
 
+    String getCatalogETag();
+
     void deleteService(Integer serviceId);
 }
@@ -0,0 +1,16 @@
+package com.hszadkowski.iwa_backend.services.interfaces;
+
+import com.hszadkowski.iwa_backend.models.Appointment;
+import com.hszadkowski.iwa_backend.models.OutboxEventType;
+
+public interface OutboxService {
+
+    void enqueueEmail(OutboxEventType type, Appointment appointment, String to, String subject,
+                      String htmlBody, String calendarHtmlBody);
+
+    void enqueueCalendarAction(OutboxEventType type, Appointment appointment, String userEmail);
+
+    void dispatchPendingEvents();
+
+    void purgeProcessedEvents();
+}
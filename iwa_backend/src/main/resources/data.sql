@@ -45,33 +45,36 @@ INSERT INTO services (name, description, duration_min, price) VALUES
 ('Makeup Lesson', 'Learn to do your own makeup', 90, 70.00);
 
 -- Basic Makeup slots (service_id = 1)
-INSERT INTO availability_slots (app_user_id, service_id, start_time, end_time, is_booked) VALUES
-(1, 1, '2025-06-30 09:00:00', '2025-06-30 10:00:00', false),
-(1, 1, '2025-06-30 10:30:00', '2025-06-30 11:30:00', false),
-(1, 1, '2025-07-02 14:00:00', '2025-07-02 15:00:00', false),
-(1, 1, '2025-07-01 09:00:00', '2025-07-01 10:00:00', false);
+INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) VALUES
+(1, 1, 1, '2025-06-30 09:00:00', '2025-06-30 10:00:00', false),
+(2, 1, 1, '2025-06-30 10:30:00', '2025-06-30 11:30:00', false),
+(3, 1, 1, '2025-07-02 14:00:00', '2025-07-02 15:00:00', false),
+(4, 1, 1, '2025-07-01 09:00:00', '2025-07-01 10:00:00', false);
 
 -- Evening Makeup slots (service_id = 2)
-INSERT INTO availability_slots (app_user_id, service_id, start_time, end_time, is_booked) VALUES
-(1, 2, '2025-06-10 16:00:00', '2025-06-10 17:30:00', false),
-(1, 2, '2025-06-11 17:00:00', '2025-06-11 18:30:00', false),
-(1, 2, '2025-06-13 16:00:00', '2025-06-13 17:30:00', false);
+INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) VALUES
+(5, 1, 2, '2025-06-10 16:00:00', '2025-06-10 17:30:00', false),
+(6, 1, 2, '2025-06-11 17:00:00', '2025-06-11 18:30:00', false),
+(7, 1, 2, '2025-06-13 16:00:00', '2025-06-13 17:30:00', false);
 
 -- Bridal Makeup slots (service_id = 3)
-INSERT INTO availability_slots (app_user_id, service_id, start_time, end_time, is_booked) VALUES
-(1, 3, '2025-06-15 08:00:00', '2025-06-15 10:00:00', false),
-(1, 3, '2025-06-16 09:00:00', '2025-06-16 11:00:00', false),
-(1, 3, '2025-06-20 08:00:00', '2025-06-20 10:00:00', false);
+INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) VALUES
+(8, 1, 3, '2025-06-15 08:00:00', '2025-06-15 10:00:00', false),
+(9, 1, 3, '2025-06-16 09:00:00', '2025-06-16 11:00:00', false),
+(10, 1, 3, '2025-06-20 08:00:00', '2025-06-20 10:00:00', false);
 
 -- Makeup Lesson slots (service_id = 4)
-INSERT INTO availability_slots (app_user_id, service_id, start_time, end_time, is_booked) VALUES
-(1, 4, '2025-06-10 13:00:00', '2025-06-10 14:30:00', false),
-(1, 4, '2025-06-12 15:00:00', '2025-06-12 16:30:00', false);
+INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) VALUES
+(11, 1, 4, '2025-06-10 13:00:00', '2025-06-10 14:30:00', false),
+(12, 1, 4, '2025-06-12 15:00:00', '2025-06-12 16:30:00', false);
 
 -- Add one already booked slot for testing
-INSERT INTO availability_slots (app_user_id, service_id, start_time, end_time, is_booked) VALUES
-(1, 1, '2025-06-10 12:00:00', '2025-06-10 13:00:00', true);
+INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) VALUES
+(13, 1, 1, '2025-06-10 12:00:00', '2025-06-10 13:00:00', true);
 
 -- Add one slot in the past for testing (should not be bookable)
-INSERT INTO availability_slots (app_user_id, service_id, start_time, end_time, is_booked) VALUES
-(1, 1, '2025-05-01 09:00:00', '2025-05-01 10:00:00', false);
\ No newline at end of file
+INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) VALUES
+(14, 1, 1, '2025-05-01 09:00:00', '2025-05-01 10:00:00', false);
+
+-- Seeded slots carry explicit ids, so the pooled sequence starts after them
+ALTER SEQUENCE availability_slots_seq RESTART WITH 15;
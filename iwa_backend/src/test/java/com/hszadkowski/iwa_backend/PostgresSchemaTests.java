@@ -0,0 +1,177 @@
+package com.hszadkowski.iwa_backend;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs db/create_tables.sql and the migrations against a real PostgreSQL server (embedded, no
+ * Docker needed). Checks that every pooled-lo table draws its ids from a sequence whose increment
+ * matches the entities' allocationSize, with no SERIAL default left competing with it, that
+ * availability slots carry the exclusion constraint against overlaps, and that notifications take
+ * the upper-case type names once per appointment and day.
+ */
+class PostgresSchemaTests {
+
+    private static final Path DB_DIR = Path.of("..", "db");
+    private static final String SLOT_OVERLAP_CONSTRAINT = "availability_slots_no_overlap";
+    private static final String NOTIFICATION_CLAIM_CONSTRAINT = "uk_notifications_appointment_type_sent_at";
+    private static final List<String[]> SEQUENCE_TABLES = List.of(
+            new String[]{"availability_slots", "slot_id"},
+            new String[]{"appointments", "appointment_id"},
+            new String[]{"calendar_events", "calendar_event_id"},
+            new String[]{"calendar_tokens", "token_id"},
+            new String[]{"notifications", "notification_id"},
+            new String[]{"outbox_events", "outbox_event_id"},
+            new String[]{"payments", "payment_id"},
+            new String[]{"reviews", "review_id"}
+    );
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterEach
+    void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void freshSchemaDrawsIdsFromPooledSequences() throws IOException {
+        runScript(DB_DIR.resolve("create_tables.sql"));
+
+        for (String[] table : SEQUENCE_TABLES) {
+            assertThat(columnDefault(table[0], table[1])).as(table[0]).isNull();
+            assertThat(sequenceIncrement(table[0] + "_seq")).as(table[0]).isEqualTo(50);
+        }
+        assertThat(constraintExists(SLOT_OVERLAP_CONSTRAINT)).isTrue();
+        assertThat(constraintExists(NOTIFICATION_CLAIM_CONSTRAINT)).isTrue();
+    }
+
+    @Test
+    void migrationMovesSerialTablesOntoSequences() throws IOException {
+        // The id columns as the SERIAL-era schema and an older schema update left them
+        for (String[] table : SEQUENCE_TABLES) {
+            String idColumn = table[0].equals("notifications") ? "notif_id" : table[1];
+            String idType = table[0].equals("outbox_events") ? "integer GENERATED BY DEFAULT AS IDENTITY" : "SERIAL";
+            jdbcTemplate.execute("CREATE TABLE " + table[0] + " (" + idColumn + " " + idType + " PRIMARY KEY, label varchar)");
+            jdbcTemplate.execute("INSERT INTO " + table[0] + " (label) SELECT 'row ' || n FROM generate_series(1, 70) n");
+        }
+        jdbcTemplate.execute("ALTER TABLE notifications ADD COLUMN notification_id integer");
+
+        runScript(DB_DIR.resolve("migrations/001_pooled_id_sequences.sql"));
+
+        for (String[] table : SEQUENCE_TABLES) {
+            assertThat(columnDefault(table[0], table[1])).as(table[0]).isNull();
+            assertThat(sequenceIncrement(table[0] + "_seq")).as(table[0]).isEqualTo(50);
+            // The first pooled block starts past the existing rows
+            assertThat(jdbcTemplate.queryForObject("SELECT nextval('" + table[0] + "_seq')", Long.class))
+                    .as(table[0]).isEqualTo(71);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(notification_id) FROM notifications", Integer.class))
+                .isEqualTo(70);
+        assertThat(jdbcTemplate.queryForList("SELECT sequencename FROM pg_sequences", String.class))
+                .containsExactlyInAnyOrderElementsOf(SEQUENCE_TABLES.stream().map(table -> table[0] + "_seq").toList());
+    }
+
+    @Test
+    void migrationAddsTheSlotOverlapConstraint() throws IOException {
+        createSchemaWithoutSlotOverlapConstraint();
+        insertSlot(1, "2030-01-07 09:00", "2030-01-07 10:00");
+        insertSlot(2, "2030-01-07 10:00", "2030-01-07 11:00");
+
+        runScript(DB_DIR.resolve("migrations/002_slot_overlap_constraint.sql"));
+
+        assertThat(constraintExists(SLOT_OVERLAP_CONSTRAINT)).isTrue();
+        assertThatThrownBy(() -> insertSlot(3, "2030-01-07 09:30", "2030-01-07 10:30"))
+                .hasMessageContaining(SLOT_OVERLAP_CONSTRAINT);
+        // Already in place, so running it again changes nothing
+        runScript(DB_DIR.resolve("migrations/002_slot_overlap_constraint.sql"));
+    }
+
+    @Test
+    void slotMigrationListsSlotsThatAlreadyOverlap() throws IOException {
+        createSchemaWithoutSlotOverlapConstraint();
+        insertSlot(1, "2030-01-07 09:00", "2030-01-07 10:00");
+        insertSlot(2, "2030-01-07 09:30", "2030-01-07 10:30");
+        insertSlot(3, "2030-01-07 10:30", "2030-01-07 11:30");
+
+        assertThatThrownBy(() -> runScript(DB_DIR.resolve("migrations/002_slot_overlap_constraint.sql")))
+                .hasMessageContaining("slot 1 (2030-01-07 09:00:00 - 2030-01-07 10:00:00) and slot 2")
+                .hasMessageNotContaining("slot 3");
+        assertThat(constraintExists(SLOT_OVERLAP_CONSTRAINT)).isFalse();
+    }
+
+    @Test
+    void migrationStoresNotificationTypesAsNamesAndAddsTheClaimKey() throws IOException {
+        // The notifications table as databases created with the notification_type enum have it
+        runScript(DB_DIR.resolve("create_tables.sql"));
+        jdbcTemplate.execute("DROP TABLE notifications");
+        jdbcTemplate.execute("CREATE TYPE notification_type AS ENUM ('reminder', 'confirmation', 'cancellation')");
+        jdbcTemplate.execute("CREATE TABLE notifications (notification_id integer PRIMARY KEY, "
+                + "appointment_id integer NOT NULL, type notification_type NOT NULL, sent_at timestamp NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO notifications VALUES "
+                + "(1, 7, 'reminder', '2030-01-07'), (2, 7, 'reminder', '2030-01-07'), (3, 7, 'confirmation', '2030-01-07')");
+
+        runScript(DB_DIR.resolve("migrations/003_notification_type_varchar.sql"));
+
+        assertThat(jdbcTemplate.queryForList("SELECT notification_id || ' ' || type FROM notifications ORDER BY 1", String.class))
+                .containsExactly("1 REMINDER", "3 CONFIRMATION");
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO notifications VALUES (4, 7, 'REMINDER', '2030-01-07')"))
+                .hasMessageContaining(NOTIFICATION_CLAIM_CONSTRAINT);
+        jdbcTemplate.update("INSERT INTO notifications VALUES (4, 7, 'REMINDER', '2030-01-08')");
+        // Already converted, so running it again changes nothing
+        runScript(DB_DIR.resolve("migrations/003_notification_type_varchar.sql"));
+    }
+
+    // The schema as databases created before the constraint have it
+    private void createSchemaWithoutSlotOverlapConstraint() throws IOException {
+        runScript(DB_DIR.resolve("create_tables.sql"));
+        jdbcTemplate.execute("ALTER TABLE availability_slots DROP CONSTRAINT " + SLOT_OVERLAP_CONSTRAINT);
+        jdbcTemplate.execute("DROP EXTENSION btree_gist");
+        jdbcTemplate.update("INSERT INTO app_users (name, surname, email, password_hash, role) "
+                + "VALUES ('Alice', 'Admin', 'alice@acme.com', 'n/a', 'ROLE_ADMIN')");
+        jdbcTemplate.update("INSERT INTO services (name, duration_min, price) VALUES ('Basic Makeup', 60, 50.00)");
+    }
+
+    private void insertSlot(int slotId, String start, String end) {
+        jdbcTemplate.update("INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) "
+                + "VALUES (?, 1, 1, ?::timestamp, ?::timestamp, false)", slotId, start, end);
+    }
+
+    private boolean constraintExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class, name));
+    }
+
+    private void runScript(Path script) throws IOException {
+        // Executed as one string so the driver keeps DO $$ ... $$ bodies intact
+        jdbcTemplate.execute(Files.readString(script));
+    }
+
+    private String columnDefault(String table, String column) {
+        return jdbcTemplate.queryForObject(
+                "SELECT column_default FROM information_schema.columns WHERE table_name = ? AND column_name = ?",
+                String.class, table, column);
+    }
+
+    private Long sequenceIncrement(String sequence) {
+        return jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = ?", Long.class, sequence);
+    }
+}
@@ -0,0 +1,150 @@
+package com.hszadkowski.iwa_backend.benchmarks;
+
+import com.hszadkowski.iwa_backend.services.EmailTemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminder emails rendered per second for a batch like the one the nightly reminder run sends,
+ * through the precompiled templates in {@link EmailTemplateEngine}, against the + chain the
+ * reminder used to be built from and a naive template that is searched and replaced on every render.
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=EmailTemplateEngineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmailTemplateEngineBenchmark {
+
+    private static final int BATCH = 100;
+
+    private EmailTemplateEngine emailTemplateEngine;
+    private String rawTemplate;
+    private List<Map<String, Object>> models;
+
+    @Setup
+    public void setUp() throws IOException {
+        emailTemplateEngine = new EmailTemplateEngine();
+        rawTemplate = new ClassPathResource("templates/email/reminder.html").getContentAsString(StandardCharsets.UTF_8);
+
+        LocalDateTime start = LocalDate.now().plusDays(1).atTime(9, 0);
+        models = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            Map<String, Object> model = new HashMap<>();
+            model.put("userName", "Customer " + i);
+            model.put("serviceName", i % 2 == 0 ? "Bridal Makeup" : "Evening Makeup");
+            model.put("date", start.toLocalDate());
+            model.put("startTime", start.plusMinutes(30L * (i % 16)).toLocalTime());
+            model.put("durationMin", 60 + 15 * (i % 3));
+            model.put("location", "Studio & Salon, Main Street " + i);
+            model.put("notes", i % 3 == 0 ? "" : "Please bring <reference> photos");
+            models.add(model);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void compiledTemplate(Blackhole blackhole) {
+        for (Map<String, Object> model : models) {
+            blackhole.consume(emailTemplateEngine.render("reminder", model));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void replacePerRender(Blackhole blackhole) {
+        for (Map<String, Object> model : models) {
+            blackhole.consume(replaceAll(model));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void concatenation(Blackhole blackhole) {
+        for (Map<String, Object> model : models) {
+            blackhole.consume(concatenate(model));
+        }
+    }
+
+    // Scans the whole template once per value and once per section marker
+    private String replaceAll(Map<String, Object> model) {
+        String notes = (String) model.get("notes");
+        String html = rawTemplate;
+        if (notes.isBlank()) {
+            html = html.replaceAll("(?s)\\{\\{#notes}}.*?\\{\\{/notes}}", "");
+        } else {
+            html = html.replace("{{#notes}}", "").replace("{{/notes}}", "");
+        }
+        for (Map.Entry<String, Object> entry : model.entrySet()) {
+            html = html.replace("{{" + entry.getKey() + "}}", escape(String.valueOf(entry.getValue())));
+        }
+        return html;
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#39;");
+    }
+
+    // The reminder markup as it was built before the templates, escaping added for a fair comparison
+    private static String concatenate(Map<String, Object> model) {
+        String notes = (String) model.get("notes");
+        return "<html>"
+                + "<body style=\"font-family: Arial, sans-serif;\">"
+                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
+                + "<h2 style=\"color: #333;\">🔔 Appointment Reminder</h2>"
+                + "<p style=\"font-size: 16px;\">Hi " + escape(String.valueOf(model.get("userName"))) + ",</p>"
+                + "<p style=\"font-size: 16px;\">This is a friendly reminder that you have an appointment scheduled for <strong>tomorrow</strong>!</p>"
+                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1); border-left: 4px solid #007bff;\">"
+                + "<h3 style=\"color: #333; margin-top: 0;\">Appointment Details:</h3>"
+                + "<p><strong>Service:</strong> " + escape(String.valueOf(model.get("serviceName"))) + "</p>"
+                + "<p><strong>Date:</strong> " + model.get("date") + "</p>"
+                + "<p><strong>Time:</strong> " + model.get("startTime") + "</p>"
+                + "<p><strong>Duration:</strong> " + model.get("durationMin") + " minutes</p>"
+                + "<p><strong>Location:</strong> " + escape(String.valueOf(model.get("location"))) + "</p>"
+                + (!notes.isBlank() ? "<p><strong>Notes:</strong> " + escape(notes) + "</p>" : "")
+                + "</div>"
+                + "<div style=\"background-color: #e3f2fd; padding: 15px; border-radius: 5px; margin-top: 20px;\">"
+                + "<h4 style=\"color: #1976d2; margin-top: 0;\">💡 Preparation Tips:</h4>"
+                + "<ul style=\"color: #333; padding-left: 20px;\">"
+                + "<li>Please arrive 5-10 minutes early</li>"
+                + "<li>Come with a clean face (if applicable)</li>"
+                + "<li>Bring any specific makeup preferences or inspiration photos</li>"
+                + "</ul>"
+                + "</div>"
+                + "<p style=\"font-size: 14px; margin-top: 20px; color: #666;\">"
+                + "Need to reschedule or cancel? Please contact us as soon as possible or use your account dashboard."
+                + "</p>"
+                + "<p style=\"font-size: 14px; color: #666;\">"
+                + "We look forward to seeing you tomorrow!"
+                + "</p>"
+                + "</div>"
+                + "</body>"
+                + "</html>";
+    }
+}
@@ -0,0 +1,67 @@
+package com.hszadkowski.iwa_backend.benchmarks;
+
+import com.hszadkowski.iwa_backend.services.implementations.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens validated per second by the cached key and parser in {@link JwtServiceImpl}, against the
+ * previous path that decoded the secret and built a new parser on every call.
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=JwtParserBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtParserBenchmark {
+
+    private String secretKey;
+    private String token;
+    private JwtServiceImpl jwtService;
+
+    @Setup
+    public void setUp() {
+        secretKey = Base64.getEncoder().encodeToString("benchmark-secret-key-of-at-least-32-bytes".getBytes());
+
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "secretKey", secretKey);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+
+        token = jwtService.generateToken(User.withUsername("bob@acme.com").password("n/a").roles("USER").build());
+    }
+
+    @Benchmark
+    public Claims cachedParser() {
+        return jwtService.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,69 @@
+package com.hszadkowski.iwa_backend.config;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the startup check and the exclusion constraint against a real PostgreSQL server (embedded,
+ * no Docker needed) on the schema from db/create_tables.sql.
+ */
+class SlotOverlapConstraintTests {
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+    private SlotOverlapConstraint slotOverlapConstraint;
+
+    @BeforeEach
+    void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute(Files.readString(Path.of("..", "db", "create_tables.sql")));
+        jdbcTemplate.update("INSERT INTO app_users (name, surname, email, password_hash, role) VALUES "
+                + "('Alice', 'Admin', 'alice@acme.com', 'n/a', 'ROLE_ADMIN'), "
+                + "('Carol', 'Admin', 'carol@acme.com', 'n/a', 'ROLE_ADMIN')");
+        jdbcTemplate.update("INSERT INTO services (name, duration_min, price) VALUES ('Basic Makeup', 60, 50.00)");
+        slotOverlapConstraint = new SlotOverlapConstraint(jdbcTemplate);
+    }
+
+    @AfterEach
+    void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void overlappingSlotsOfOneAdminAreRejected() {
+        slotOverlapConstraint.afterSingletonsInstantiated();
+        insertSlot(1, 1, "2030-01-07 09:00", "2030-01-07 10:00");
+
+        assertThatThrownBy(() -> insertSlot(2, 1, "2030-01-07 09:30", "2030-01-07 10:30"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining(SlotOverlapConstraint.CONSTRAINT_NAME);
+        // Back-to-back slots and other admins' slots are fine
+        insertSlot(3, 1, "2030-01-07 10:00", "2030-01-07 11:00");
+        insertSlot(4, 2, "2030-01-07 09:30", "2030-01-07 10:30");
+    }
+
+    @Test
+    void startupFailsWithoutTheConstraint() {
+        jdbcTemplate.execute("ALTER TABLE availability_slots DROP CONSTRAINT " + SlotOverlapConstraint.CONSTRAINT_NAME);
+
+        assertThatThrownBy(() -> slotOverlapConstraint.afterSingletonsInstantiated())
+                .hasMessageContaining(SlotOverlapConstraint.CONSTRAINT_NAME + " is missing")
+                .hasMessageContaining("002_slot_overlap_constraint.sql");
+    }
+
+    private void insertSlot(int slotId, int adminId, String start, String end) {
+        jdbcTemplate.update("INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) "
+                + "VALUES (?, ?, 1, ?::timestamp, ?::timestamp, false)", slotId, adminId, start, end);
+    }
+}
@@ -0,0 +1,99 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.dto.BookAppointmentDto;
+import com.hszadkowski.iwa_backend.models.AvailabilitySlot;
+import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
+import com.hszadkowski.iwa_backend.repos.AvailabilitySlotRepository;
+import com.hszadkowski.iwa_backend.repos.ServiceRepository;
+import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.interfaces.AppointmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AppointmentBookingConcurrencyTests {
+
+    private static final int BOOKING_ATTEMPTS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AvailabilitySlotRepository availabilitySlotRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Test
+    void parallelBookingsOfOneSlotHaveExactlyOneWinner() throws InterruptedException {
+        Integer slotId = createFutureSlot();
+        BookAppointmentDto request = new BookAppointmentDto(slotId, 1, "Studio", null);
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < BOOKING_ATTEMPTS; i++) {
+                executor.submit(() -> {
+                    try {
+                        startGate.await();
+                        appointmentService.bookAppointment(request, "bob@acme.com");
+                        booked.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        if (String.valueOf(e.getMessage()).contains("no longer available")) {
+                            rejected.incrementAndGet();
+                        } else {
+                            unexpected.add(e);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        unexpected.add(e);
+                    }
+                });
+            }
+            startGate.countDown();
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(booked).hasValue(1);
+        assertThat(rejected).hasValue(BOOKING_ATTEMPTS - 1);
+        assertThat(appointmentRepository.findAll())
+                .filteredOn(appointment -> slotId.equals(appointment.getSlot().getSlotId()))
+                .hasSize(1);
+        assertThat(availabilitySlotRepository.findById(slotId))
+                .hasValueSatisfying(slot -> assertThat(slot.getIsBooked()).isTrue());
+    }
+
+    private Integer createFutureSlot() {
+        LocalDateTime start = LocalDateTime.now().plusDays(60).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+        AvailabilitySlot slot = new AvailabilitySlot();
+        slot.setAppUser(userRepository.findByEmail("alice@acme.com").orElseThrow());
+        slot.setService(serviceRepository.findById(1).orElseThrow());
+        slot.setStartTime(start);
+        slot.setEndTime(start.plusHours(1));
+        slot.setIsBooked(false);
+        return availabilitySlotRepository.save(slot).getSlotId();
+    }
+}
@@ -0,0 +1,123 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.dto.AppointmentResponseDto;
+import com.hszadkowski.iwa_backend.models.AppUser;
+import com.hszadkowski.iwa_backend.models.Appointment;
+import com.hszadkowski.iwa_backend.models.AppointmentStatusName;
+import com.hszadkowski.iwa_backend.models.AvailabilitySlot;
+import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
+import com.hszadkowski.iwa_backend.repos.AvailabilitySlotRepository;
+import com.hszadkowski.iwa_backend.repos.ServiceRepository;
+import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.interfaces.AppointmentService;
+import com.hszadkowski.iwa_backend.services.interfaces.AvailabilityService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Locks in that the appointment and slot listings are a single select however many rows they return.
+ */
+@SpringBootTest
+class AppointmentListingQueryCountTests {
+
+    private static final String USER_EMAIL = "bob@acme.com";
+    private static final int APPOINTMENTS = 5;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository availabilitySlotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AppointmentStatusRegistry appointmentStatusRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void listingsRunOneStatementRegardlessOfRowCount() {
+        AppUser user = userRepository.findByEmail(USER_EMAIL).orElseThrow();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            saveAppointment(user, i == 0 ? null : serviceRepository.findById(1 + i % 2).orElseThrow(), 120 + i);
+        }
+
+        List<AppointmentResponseDto> all = countStatements(1, appointmentService::getAllAppointments);
+        List<AppointmentResponseDto> mine = countStatements(1, () -> appointmentService.getUserAppointments(USER_EMAIL));
+        assertThat(countStatements(1, availabilityService::getAllSlots)).hasSizeGreaterThanOrEqualTo(APPOINTMENTS);
+
+        assertThat(mine).hasSizeGreaterThanOrEqualTo(APPOINTMENTS);
+        assertThat(all).containsAll(mine);
+        // Appointments without a service are still listed
+        assertThat(mine).anySatisfy(appointment -> assertThat(appointment.getServiceId()).isNull());
+        assertThat(mine).allSatisfy(appointment ->
+                assertThat(appointment.getUserName()).isEqualTo(user.getName() + " " + user.getSurname()));
+    }
+
+    private <T> List<T> countStatements(long expected, Supplier<List<T>> call) {
+        statistics.clear();
+        List<T> rows = call.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("statements for a listing of %d rows", rows.size())
+                .isEqualTo(expected);
+        return rows;
+    }
+
+    private void saveAppointment(AppUser user, com.hszadkowski.iwa_backend.models.Service service, int daysAhead) {
+        LocalDateTime start = LocalDateTime.now().plusDays(daysAhead).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        AvailabilitySlot slot = new AvailabilitySlot();
+        slot.setAppUser(userRepository.findByEmail("alice@acme.com").orElseThrow());
+        slot.setService(service);
+        slot.setStartTime(start);
+        slot.setEndTime(start.plusHours(1));
+        slot.setIsBooked(true);
+        availabilitySlotRepository.save(slot);
+
+        Appointment appointment = new Appointment();
+        appointment.setAppUser(user);
+        appointment.setService(service);
+        appointment.setStatus(appointmentStatusRegistry.get(AppointmentStatusName.CONFIRMED));
+        appointment.setSlot(slot);
+        appointment.setLocation("Studio");
+        appointment.setScheduledAt(start.toLocalDate());
+        appointmentRepository.save(appointment);
+    }
+}
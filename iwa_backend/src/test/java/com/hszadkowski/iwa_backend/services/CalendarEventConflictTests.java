@@ -0,0 +1,210 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.models.AppUser;
+import com.hszadkowski.iwa_backend.models.Appointment;
+import com.hszadkowski.iwa_backend.models.AppointmentStatusName;
+import com.hszadkowski.iwa_backend.models.AvailabilitySlot;
+import com.hszadkowski.iwa_backend.models.CalendarEvent;
+import com.hszadkowski.iwa_backend.models.CalendarToken;
+import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
+import com.hszadkowski.iwa_backend.repos.AvailabilitySlotRepository;
+import com.hszadkowski.iwa_backend.repos.CalendarEventRepository;
+import com.hszadkowski.iwa_backend.repos.CalendarTokenRepository;
+import com.hszadkowski.iwa_backend.repos.ServiceRepository;
+import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.interfaces.GoogleCalendarService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Updates an appointment whose Google event was edited in Google since we last wrote it. The stale
+ * ETag is rejected with 412; the update must then reapply the appointment on the current version
+ * instead of failing until the outbox gives up. No database connection may be held while Google
+ * is called.
+ */
+@SpringBootTest
+class CalendarEventConflictTests {
+
+    private static final String EVENT_ID = "edited-event";
+    private static final String STALE_ETAG = "\"stale\"";
+    private static final String CURRENT_ETAG = "\"edited-in-google\"";
+    private static final String UPDATED_ETAG = "\"reapplied\"";
+
+    @Autowired
+    private GoogleCalendarService googleCalendarService;
+
+    @Autowired
+    private CalendarTokenRepository calendarTokenRepository;
+
+    @Autowired
+    private CalendarEventRepository calendarEventRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository availabilitySlotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AppointmentStatusRegistry appointmentStatusRegistry;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    private HttpServer fakeGoogle;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<Integer> activeConnectionsDuringRequests = new CopyOnWriteArrayList<>();
+    private Object calendarServiceTarget;
+    private Object originalRootUrl;
+
+    @BeforeEach
+    void startFakeGoogle() throws IOException {
+        fakeGoogle = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        fakeGoogle.createContext("/calendar/v3/calendars/primary/events/" + EVENT_ID, this::answerEvent);
+        fakeGoogle.start();
+
+        calendarServiceTarget = AopTestUtils.getTargetObject(googleCalendarService);
+        originalRootUrl = ReflectionTestUtils.getField(calendarServiceTarget, "calendarRootUrl");
+        ReflectionTestUtils.setField(calendarServiceTarget, "calendarRootUrl",
+                "http://localhost:" + fakeGoogle.getAddress().getPort() + "/");
+    }
+
+    @AfterEach
+    void stopFakeGoogle() {
+        ReflectionTestUtils.setField(calendarServiceTarget, "calendarRootUrl", originalRootUrl);
+        fakeGoogle.stop(0);
+    }
+
+    @Test
+    void updateOfAnEventEditedInGoogleIsReappliedOnItsCurrentVersion() throws Exception {
+        AppUser user = saveUser();
+        saveToken(user);
+        Appointment appointment = saveAppointment(user);
+        CalendarEvent calendarEvent = saveCalendarEvent(user, appointment);
+
+        googleCalendarService.updateCalendarEvent(appointment, user.getEmail());
+
+        assertThat(requests).containsExactly(
+                "PATCH If-Match " + STALE_ETAG,
+                "GET",
+                "PATCH If-Match " + CURRENT_ETAG);
+        assertThat(calendarEventRepository.findById(calendarEvent.getCalendarEventId()).orElseThrow().getEtag())
+                .isEqualTo(UPDATED_ETAG);
+        assertThat(activeConnectionsDuringRequests).containsExactly(0, 0, 0);
+    }
+
+    // Behaves like Google for an event last changed in Google: only its current ETag passes If-Match
+    private void answerEvent(HttpExchange exchange) throws IOException {
+        activeConnectionsDuringRequests.add(dataSource.getHikariPoolMXBean().getActiveConnections());
+        String method = exchange.getRequestMethod();
+        exchange.getRequestBody().readAllBytes();
+
+        if ("GET".equals(method)) {
+            requests.add("GET");
+            respond(exchange, 200, event(CURRENT_ETAG));
+            return;
+        }
+
+        String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+        requests.add(method + " If-Match " + ifMatch);
+        if (!CURRENT_ETAG.equals(ifMatch)) {
+            respond(exchange, 412, "{\"error\":{\"code\":412,\"message\":\"Precondition Failed\","
+                    + "\"errors\":[{\"domain\":\"global\",\"reason\":\"conditionNotMet\",\"message\":\"Precondition Failed\"}]}}");
+            return;
+        }
+        respond(exchange, 200, event(UPDATED_ETAG));
+    }
+
+    private String event(String etag) {
+        return "{\"id\":\"" + EVENT_ID + "\",\"etag\":\"" + etag.replace("\"", "\\\"") + "\",\"status\":\"confirmed\"}";
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private AppUser saveUser() {
+        AppUser user = new AppUser();
+        user.setName("Dana");
+        user.setSurname("Conflict");
+        user.setEmail("dana.conflict@acme.com");
+        user.setPasswordHash("n/a");
+        user.setRole("ROLE_USER");
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+
+    private void saveToken(AppUser user) {
+        CalendarToken token = new CalendarToken();
+        token.setAppUser(user);
+        token.setProvider("google");
+        token.setAccessToken("fake-access-token");
+        token.setRefreshToken("fake-refresh-token");
+        token.setExpiresAt(LocalDateTime.now().plusHours(1));
+        token.setNextRefreshAt(LocalDateTime.now().plusMinutes(50));
+        token.setEmail(user.getEmail());
+        calendarTokenRepository.save(token);
+    }
+
+    private Appointment saveAppointment(AppUser user) {
+        LocalDateTime start = LocalDateTime.now().plusDays(200).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+        AvailabilitySlot slot = new AvailabilitySlot();
+        slot.setAppUser(userRepository.findByEmail("alice@acme.com").orElseThrow());
+        slot.setService(serviceRepository.findById(1).orElseThrow());
+        slot.setStartTime(start);
+        slot.setEndTime(start.plusHours(1));
+        slot.setIsBooked(true);
+        availabilitySlotRepository.save(slot);
+
+        Appointment appointment = new Appointment();
+        appointment.setAppUser(user);
+        appointment.setService(slot.getService());
+        appointment.setStatus(appointmentStatusRegistry.get(AppointmentStatusName.CONFIRMED));
+        appointment.setSlot(slot);
+        appointment.setLocation("Studio");
+        appointment.setScheduledAt(start.toLocalDate());
+        return appointmentRepository.save(appointment);
+    }
+
+    private CalendarEvent saveCalendarEvent(AppUser user, Appointment appointment) {
+        CalendarEvent calendarEvent = new CalendarEvent();
+        calendarEvent.setAppointment(appointment);
+        calendarEvent.setAppUser(user);
+        calendarEvent.setProvider("google");
+        calendarEvent.setExternalEventId(EVENT_ID);
+        calendarEvent.setCalendarId("primary");
+        calendarEvent.setEtag(STALE_ETAG);
+        calendarEvent.setSynced(true);
+        return calendarEventRepository.save(calendarEvent);
+    }
+}
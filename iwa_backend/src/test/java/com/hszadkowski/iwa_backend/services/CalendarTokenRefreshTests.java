@@ -0,0 +1,116 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.models.AppUser;
+import com.hszadkowski.iwa_backend.models.CalendarToken;
+import com.hszadkowski.iwa_backend.repos.CalendarTokenRepository;
+import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.interfaces.GoogleCalendarService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the refresh poller against a local token endpoint that rejects the refresh token, and
+ * checks that the rejected token is dropped for good instead of being retried on every poll.
+ */
+@SpringBootTest
+class CalendarTokenRefreshTests {
+
+    private static final String USER_EMAIL = "bob@acme.com";
+
+    @Autowired
+    private CalendarTokenRefreshService calendarTokenRefreshService;
+
+    @Autowired
+    private GoogleCalendarService googleCalendarService;
+
+    @Autowired
+    private CalendarTokenRepository calendarTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private HttpServer fakeTokenServer;
+    private final AtomicInteger refreshAttempts = new AtomicInteger();
+    private Object calendarServiceTarget;
+    private Object originalTokenServerUrl;
+
+    @BeforeEach
+    void startFakeTokenServer() throws IOException {
+        fakeTokenServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        fakeTokenServer.createContext("/token", this::rejectRefresh);
+        fakeTokenServer.start();
+
+        // The OAuth flow is built on first use, so drop it to have it pick up the fake endpoint
+        calendarServiceTarget = AopTestUtils.getTargetObject(googleCalendarService);
+        originalTokenServerUrl = ReflectionTestUtils.getField(calendarServiceTarget, "tokenServerUrl");
+        ReflectionTestUtils.setField(calendarServiceTarget, "tokenServerUrl",
+                "http://localhost:" + fakeTokenServer.getAddress().getPort() + "/token");
+        ReflectionTestUtils.setField(calendarServiceTarget, "flow", null);
+    }
+
+    @AfterEach
+    void stopFakeTokenServer() {
+        ReflectionTestUtils.setField(calendarServiceTarget, "tokenServerUrl", originalTokenServerUrl);
+        ReflectionTestUtils.setField(calendarServiceTarget, "flow", null);
+        fakeTokenServer.stop(0);
+    }
+
+    @Test
+    void revokedTokenIsNotPickedUpAgainAfterAFailedRefresh() {
+        AppUser user = userRepository.findByEmail(USER_EMAIL).orElseThrow();
+        Integer tokenId = saveDueToken(user);
+
+        calendarTokenRefreshService.refreshDueTokens();
+
+        // The scheduled poll may have raced this one to the token, so count from here on
+        int attemptsAfterFirstPoll = refreshAttempts.get();
+        assertThat(attemptsAfterFirstPoll).isPositive();
+        assertThat(calendarTokenRepository.existsById(tokenId)).isFalse();
+
+        calendarTokenRefreshService.refreshDueTokens();
+
+        assertThat(refreshAttempts).hasValue(attemptsAfterFirstPoll);
+    }
+
+    // Answers like Google does for a revoked refresh token
+    private void rejectRefresh(HttpExchange exchange) throws IOException {
+        refreshAttempts.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+
+        byte[] body = "{\"error\":\"invalid_grant\",\"error_description\":\"Token has been expired or revoked.\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(400, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Integer saveDueToken(AppUser user) {
+        CalendarToken token = new CalendarToken();
+        token.setAppUser(user);
+        token.setProvider("google");
+        token.setAccessToken("fake-access-token");
+        token.setRefreshToken("revoked-refresh-token");
+        token.setExpiresAt(LocalDateTime.now().plusMinutes(3));
+        token.setNextRefreshAt(LocalDateTime.now().minusMinutes(1));
+        token.setEmail(user.getEmail());
+        return calendarTokenRepository.save(token).getTokenId();
+    }
+}
@@ -0,0 +1,173 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.dto.CalendarBulkSyncResultDto;
+import com.hszadkowski.iwa_backend.models.AppUser;
+import com.hszadkowski.iwa_backend.models.Appointment;
+import com.hszadkowski.iwa_backend.models.AppointmentStatusName;
+import com.hszadkowski.iwa_backend.models.AvailabilitySlot;
+import com.hszadkowski.iwa_backend.models.CalendarToken;
+import com.hszadkowski.iwa_backend.repos.AppointmentRepository;
+import com.hszadkowski.iwa_backend.repos.AvailabilitySlotRepository;
+import com.hszadkowski.iwa_backend.repos.CalendarEventRepository;
+import com.hszadkowski.iwa_backend.repos.CalendarTokenRepository;
+import com.hszadkowski.iwa_backend.repos.ServiceRepository;
+import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.interfaces.GoogleCalendarService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the bulk calendar sync against a local fake of the Google batch endpoint and checks that
+ * no database connection is held while the batch request is in flight.
+ */
+@SpringBootTest
+class GoogleCalendarBulkSyncTests {
+
+    private static final String USER_EMAIL = "alice@acme.com";
+    private static final String BOUNDARY = "batch_fake_google";
+    private static final int APPOINTMENTS = 3;
+
+    @Autowired
+    private GoogleCalendarService googleCalendarService;
+
+    @Autowired
+    private CalendarTokenRepository calendarTokenRepository;
+
+    @Autowired
+    private CalendarEventRepository calendarEventRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository availabilitySlotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AppointmentStatusRegistry appointmentStatusRegistry;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    private HttpServer fakeGoogle;
+    private final List<Integer> activeConnectionsDuringBatch = new CopyOnWriteArrayList<>();
+    private Object calendarServiceTarget;
+    private Object originalRootUrl;
+
+    @BeforeEach
+    void startFakeGoogle() throws IOException {
+        fakeGoogle = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        fakeGoogle.createContext("/batch/calendar/v3", this::answerBatch);
+        fakeGoogle.start();
+
+        calendarServiceTarget = AopTestUtils.getTargetObject(googleCalendarService);
+        originalRootUrl = ReflectionTestUtils.getField(calendarServiceTarget, "calendarRootUrl");
+        ReflectionTestUtils.setField(calendarServiceTarget, "calendarRootUrl",
+                "http://localhost:" + fakeGoogle.getAddress().getPort() + "/");
+    }
+
+    @AfterEach
+    void stopFakeGoogle() {
+        ReflectionTestUtils.setField(calendarServiceTarget, "calendarRootUrl", originalRootUrl);
+        fakeGoogle.stop(0);
+    }
+
+    @Test
+    void syncsPendingAppointmentsWithoutHoldingAConnectionDuringTheBatchCall() {
+        AppUser user = userRepository.findByEmail(USER_EMAIL).orElseThrow();
+        saveToken(user);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            saveAppointment(user, LocalDateTime.now().plusDays(90 + i).withHour(9).withMinute(0).withSecond(0).withNano(0));
+        }
+
+        CalendarBulkSyncResultDto result = googleCalendarService.syncExistingAppointments(USER_EMAIL);
+
+        assertThat(result.getSyncedCount()).isEqualTo(APPOINTMENTS);
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(activeConnectionsDuringBatch).containsExactly(0);
+        assertThat(calendarEventRepository.findAppointmentIdsByAppUserAndProvider(user, "google"))
+                .hasSize(APPOINTMENTS);
+    }
+
+    // Answers every queued insert with a created event, in Google's multipart/mixed batch format
+    private void answerBatch(HttpExchange exchange) throws IOException {
+        activeConnectionsDuringBatch.add(dataSource.getHikariPoolMXBean().getActiveConnections());
+
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        long inserts = request.lines().filter(line -> line.startsWith("POST ")).count();
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= inserts; i++) {
+            String event = "{\"id\":\"fake-event-" + i + "\",\"etag\":\"\\\"etag-" + i + "\\\"\",\"status\":\"confirmed\"}";
+            body.append("--").append(BOUNDARY).append("\r\n")
+                    .append("Content-Type: application/http\r\n")
+                    .append("Content-ID: <response-").append(i).append(">\r\n\r\n")
+                    .append("HTTP/1.1 200 OK\r\n")
+                    .append("Content-Type: application/json; charset=UTF-8\r\n")
+                    .append("Content-Length: ").append(event.length()).append("\r\n\r\n")
+                    .append(event).append("\r\n");
+        }
+        body.append("--").append(BOUNDARY).append("--\r\n");
+
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "multipart/mixed; boundary=" + BOUNDARY);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void saveToken(AppUser user) {
+        CalendarToken token = new CalendarToken();
+        token.setAppUser(user);
+        token.setProvider("google");
+        token.setAccessToken("fake-access-token");
+        token.setRefreshToken("fake-refresh-token");
+        token.setExpiresAt(LocalDateTime.now().plusHours(1));
+        token.setNextRefreshAt(LocalDateTime.now().plusMinutes(50));
+        token.setEmail(user.getEmail());
+        calendarTokenRepository.save(token);
+    }
+
+    private void saveAppointment(AppUser user, LocalDateTime start) {
+        AvailabilitySlot slot = new AvailabilitySlot();
+        slot.setAppUser(user);
+        slot.setService(serviceRepository.findById(1).orElseThrow());
+        slot.setStartTime(start);
+        slot.setEndTime(start.plusHours(1));
+        slot.setIsBooked(true);
+        availabilitySlotRepository.save(slot);
+
+        Appointment appointment = new Appointment();
+        appointment.setAppUser(user);
+        appointment.setService(slot.getService());
+        appointment.setStatus(appointmentStatusRegistry.get(AppointmentStatusName.CONFIRMED));
+        appointment.setSlot(slot);
+        appointment.setLocation("Studio");
+        appointment.setScheduledAt(start.toLocalDate());
+        appointmentRepository.save(appointment);
+    }
+}
@@ -0,0 +1,124 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.services.interfaces.GoogleAuthService;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies Google ID tokens against a local fake of Google's key endpoint: the keys are fetched
+ * once, through the shared client and while holding a Google call permit, and tokens for another
+ * audience are rejected.
+ */
+@SpringBootTest
+class GoogleIdTokenVerificationTests {
+
+    private static final String KEY_ID = "fake-google-key";
+
+    @Autowired
+    private GoogleAuthService googleAuthService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private HttpServer fakeGoogle;
+    private RSAKey signingKey;
+    private final List<Double> availablePermitsDuringFetch = new CopyOnWriteArrayList<>();
+    private Object authServiceTarget;
+    private Object originalJwksUri;
+
+    @BeforeEach
+    void startFakeGoogle() throws IOException, JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID(KEY_ID).generate();
+
+        fakeGoogle = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        fakeGoogle.createContext("/oauth2/v3/certs", this::answerKeys);
+        fakeGoogle.start();
+
+        // The decoder is built on first use, so drop it to have it pick up the fake endpoint
+        authServiceTarget = AopTestUtils.getTargetObject(googleAuthService);
+        originalJwksUri = ReflectionTestUtils.getField(authServiceTarget, "jwksUri");
+        ReflectionTestUtils.setField(authServiceTarget, "jwksUri",
+                "http://localhost:" + fakeGoogle.getAddress().getPort() + "/oauth2/v3/certs");
+        ReflectionTestUtils.setField(authServiceTarget, "idTokenDecoder", null);
+    }
+
+    @AfterEach
+    void stopFakeGoogle() {
+        ReflectionTestUtils.setField(authServiceTarget, "jwksUri", originalJwksUri);
+        ReflectionTestUtils.setField(authServiceTarget, "idTokenDecoder", null);
+        fakeGoogle.stop(0);
+    }
+
+    @Test
+    void idTokensAreVerifiedWithKeysFetchedThroughTheGoogleCallLimit() throws JOSEException {
+        String audience = (String) ReflectionTestUtils.getField(authServiceTarget, "googleCalendarClientId");
+        double permits = googlePermitsAvailable();
+
+        assertThat(googleAuthService.validateGoogleToken(idToken(audience))).isTrue();
+        assertThat(googleAuthService.getGoogleUserInfo(idToken(audience)).getEmail()).isEqualTo("erin@acme.com");
+        assertThat(googleAuthService.validateGoogleToken(idToken("another-client"))).isFalse();
+
+        assertThat(availablePermitsDuringFetch).containsExactly(permits - 1);
+        assertThat(googlePermitsAvailable()).isEqualTo(permits);
+    }
+
+    private void answerKeys(HttpExchange exchange) throws IOException {
+        availablePermitsDuringFetch.add(googlePermitsAvailable());
+
+        byte[] body = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String idToken(String audience) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer("https://accounts.google.com")
+                .audience(audience)
+                .subject("1234567890")
+                .claim("email", "erin@acme.com")
+                .claim("name", "Erin Example")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(600)))
+                .build();
+
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(KEY_ID).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private double googlePermitsAvailable() {
+        return meterRegistry.get("outbound.calls.available").tag("provider", "google").gauge().value();
+    }
+}
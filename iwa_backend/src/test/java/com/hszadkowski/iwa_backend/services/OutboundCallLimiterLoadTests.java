@@ -0,0 +1,107 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.services.OutboundCallLimiter.OutboundProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the limiter the way request handling does: one virtual thread per caller, all hitting a
+ * slow upstream at once. The upstream must never see more calls than the provider has permits,
+ * and callers that cannot get one in time must fail fast instead of queueing without bound.
+ */
+@Slf4j
+class OutboundCallLimiterLoadTests {
+
+    private static final int GOOGLE_PERMITS = 6;
+    private static final int CALLERS = 600;
+    private static final long UPSTREAM_LATENCY_MS = 20;
+
+    @Test
+    void concurrentCallsNeverExceedTheProviderPermits() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboundCallLimiter limiter = new OutboundCallLimiter(2, GOOGLE_PERMITS, 16, 10_000, meterRegistry);
+        SlowUpstream upstream = new SlowUpstream(UPSTREAM_LATENCY_MS);
+        AtomicInteger failed = new AtomicInteger();
+
+        long started = System.nanoTime();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                callers.submit(() -> {
+                    try {
+                        limiter.call(OutboundProvider.GOOGLE, upstream::call);
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    }
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        log.info("{} callers through {} permits in {} ms, peak upstream concurrency {}",
+                CALLERS, GOOGLE_PERMITS, elapsed.toMillis(), upstream.peak.get());
+
+        assertThat(failed).hasValue(0);
+        assertThat(upstream.completed).hasValue(CALLERS);
+        assertThat(upstream.peak).hasValue(GOOGLE_PERMITS);
+        // Permits are fully used: the run takes about CALLERS / PERMITS round trips, not CALLERS of them
+        assertThat(elapsed).isLessThan(Duration.ofMillis(3 * CALLERS / GOOGLE_PERMITS * UPSTREAM_LATENCY_MS));
+        assertThat(meterRegistry.get("outbound.calls.available").tag("provider", "google").gauge().value())
+                .isEqualTo(GOOGLE_PERMITS);
+    }
+
+    @Test
+    void callersBeyondTheAcquireTimeoutFailFast() {
+        OutboundCallLimiter limiter = new OutboundCallLimiter(1, 1, 1, 50, new SimpleMeterRegistry());
+        SlowUpstream upstream = new SlowUpstream(500);
+        AtomicInteger rejected = new AtomicInteger();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                callers.submit(() -> {
+                    try {
+                        limiter.call(OutboundProvider.SMTP, upstream::call);
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertThat(upstream.peak).hasValue(1);
+        assertThat(upstream.completed.get() + rejected.get()).isEqualTo(20);
+        assertThat(rejected.get()).isGreaterThanOrEqualTo(19);
+    }
+
+    // Blocks like a remote call and records how many callers are inside it at once
+    private static final class SlowUpstream {
+        private final long latencyMs;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+
+        private SlowUpstream(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        private Void call() {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                completed.incrementAndGet();
+            }
+            return null;
+        }
+    }
+}
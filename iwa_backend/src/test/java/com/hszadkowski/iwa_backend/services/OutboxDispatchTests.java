@@ -0,0 +1,168 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.models.AppUser;
+import com.hszadkowski.iwa_backend.models.CalendarToken;
+import com.hszadkowski.iwa_backend.models.OutboxEvent;
+import com.hszadkowski.iwa_backend.models.OutboxEventStatus;
+import com.hszadkowski.iwa_backend.models.OutboxEventType;
+import com.hszadkowski.iwa_backend.repos.CalendarTokenRepository;
+import com.hszadkowski.iwa_backend.repos.OutboxEventRepository;
+import com.hszadkowski.iwa_backend.repos.UserRepository;
+import com.hszadkowski.iwa_backend.services.interfaces.EmailService;
+import com.hszadkowski.iwa_backend.services.interfaces.OutboxService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Covers the outbox claim protocol: a dispatcher whose lease expired and was taken over must not
+ * overwrite the new owner's state, and test contexts never dispatch at all. Also checks that emails
+ * go out in the variant matching the recipient's calendar connection, looked up once per batch.
+ */
+@SpringBootTest
+class OutboxDispatchTests {
+
+    private static final List<OutboxEventStatus> CLAIMABLE =
+            List.of(OutboxEventStatus.PENDING, OutboxEventStatus.IN_PROGRESS);
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private CalendarTokenRepository calendarTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void dispatcherIsSwitchedOffInTests() {
+        OutboxEvent event = outboxEventRepository.save(pendingEvent());
+
+        outboxService.dispatchPendingEvents();
+
+        assertThat(outboxEventRepository.findById(event.getOutboxEventId()).orElseThrow().getStatus())
+                .isEqualTo(OutboxEventStatus.PENDING);
+    }
+
+    @Test
+    void expiredClaimCannotOverwriteTheInstanceThatTookOver() {
+        Integer id = outboxEventRepository.save(pendingEvent()).getOutboxEventId();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        // The first dispatcher's lease has already run out when the second one claims the event
+        LocalDateTime staleLease = now.minusSeconds(1);
+        assertThat(outboxEventRepository.claimEvent(id, CLAIMABLE, OutboxEventStatus.IN_PROGRESS,
+                now, staleLease)).isEqualTo(1);
+        LocalDateTime currentLease = now.plusMinutes(5);
+        assertThat(outboxEventRepository.claimEvent(id, CLAIMABLE, OutboxEventStatus.IN_PROGRESS,
+                now, currentLease)).isEqualTo(1);
+
+        assertThat(completeAsSent(id, staleLease)).isZero();
+        assertThat(outboxEventRepository.findById(id).orElseThrow().getStatus())
+                .isEqualTo(OutboxEventStatus.IN_PROGRESS);
+
+        assertThat(completeAsSent(id, currentLease)).isEqualTo(1);
+        assertThat(outboxEventRepository.findById(id).orElseThrow().getStatus())
+                .isEqualTo(OutboxEventStatus.SENT);
+    }
+
+    @Test
+    void emailVariantFollowsTheCalendarConnectionLookedUpOncePerBatch() {
+        outboxEventRepository.deleteAll();
+        calendarTokenRepository.deleteAll();
+        saveToken(userRepository.findByEmail("alice@acme.com").orElseThrow());
+        outboxEventRepository.saveAll(List.of(
+                emailEvent("alice@acme.com"), emailEvent("bob@acme.com"), emailEvent("carol@acme.com")));
+
+        Object target = AopTestUtils.getTargetObject(outboxService);
+        Object originalEmailService = ReflectionTestUtils.getField(target, "emailService");
+        Map<String, String> sentBodies = new ConcurrentHashMap<>();
+        ReflectionTestUtils.setField(target, "emailService", new EmailService() {
+            @Override
+            public void sendVerificationEmail(String to, String subject, String text) {
+                sentBodies.put(to, text);
+            }
+
+            @Override
+            public void sendPasswordResetEmail(String to, String subject, String text) {
+                sentBodies.put(to, text);
+            }
+        });
+        ReflectionTestUtils.setField(target, "dispatchEnabled", true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            outboxService.dispatchPendingEvents();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+            ReflectionTestUtils.setField(target, "dispatchEnabled", false);
+            ReflectionTestUtils.setField(target, "emailService", originalEmailService);
+            calendarTokenRepository.deleteAll();
+        }
+
+        assertThat(sentBodies).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "alice@acme.com", "with calendar", "bob@acme.com", "plain", "carol@acme.com", "plain"));
+        // The batch select and the calendar lookup, then a claim and an outcome per event
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2 + 2 * 3);
+    }
+
+    private void saveToken(AppUser user) {
+        CalendarToken token = new CalendarToken();
+        token.setAppUser(user);
+        token.setProvider("google");
+        token.setAccessToken("fake-access-token");
+        token.setRefreshToken("fake-refresh-token");
+        token.setExpiresAt(LocalDateTime.now().plusHours(1));
+        token.setNextRefreshAt(LocalDateTime.now().plusMinutes(50));
+        token.setEmail(user.getEmail());
+        calendarTokenRepository.save(token);
+    }
+
+    private OutboxEvent emailEvent(String recipient) {
+        OutboxEvent event = pendingEvent();
+        event.setType(OutboxEventType.CONFIRMATION_EMAIL);
+        event.setRecipient(recipient);
+        event.setSubject("Appointment Confirmation");
+        event.setBody("plain");
+        event.setCalendarBody("with calendar");
+        return event;
+    }
+
+    private int completeAsSent(Integer id, LocalDateTime leaseUntil) {
+        return outboxEventRepository.completeClaimedEvent(id, OutboxEventStatus.IN_PROGRESS, leaseUntil,
+                OutboxEventStatus.SENT, 1, null, leaseUntil, LocalDateTime.now());
+    }
+
+    private OutboxEvent pendingEvent() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setType(OutboxEventType.CALENDAR_CREATE);
+        event.setStatus(OutboxEventStatus.PENDING);
+        event.setAppointmentId(1);
+        event.setRecipient("bob@acme.com");
+        event.setAttempts(0);
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now.minusSeconds(1));
+        return event;
+    }
+}
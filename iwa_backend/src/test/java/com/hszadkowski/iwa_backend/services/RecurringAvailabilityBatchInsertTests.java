@@ -0,0 +1,76 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.dto.CreateRecurringAvailabilityDto;
+import com.hszadkowski.iwa_backend.dto.RecurringAvailabilityResultDto;
+import com.hszadkowski.iwa_backend.services.interfaces.AvailabilityService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generates a quarter of weekday availability and checks that the slots reach the database as
+ * JDBC batches: with pooled sequence ids the statement count grows with the number of batches
+ * (and id blocks), not with the number of rows.
+ */
+@Slf4j
+@SpringBootTest
+class RecurringAvailabilityBatchInsertTests {
+
+    private static final String ADMIN_EMAIL = "alice@acme.com";
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void generatedSlotsAreInsertedInBatches() {
+        // Far enough ahead not to overlap slots created by the other tests
+        LocalDate start = LocalDate.now().plusYears(3);
+        CreateRecurringAvailabilityDto template = new CreateRecurringAvailabilityDto(1, start, start.plusMonths(3),
+                EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(9, 0), LocalTime.of(17, 0), 60);
+
+        long started = System.nanoTime();
+        RecurringAvailabilityResultDto result = availabilityService.createRecurringAvailability(template, ADMIN_EMAIL);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        int created = result.getCreatedCount();
+        long statements = statistics.getPrepareStatementCount();
+        log.info("{} slots inserted with {} statements in {} ms", created, statements, elapsedMs);
+
+        assertThat(created).isGreaterThan(400);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(created);
+        // One insert statement and one sequence call per block of 50, plus the lookups around them
+        long blocks = (created + BATCH_SIZE - 1) / BATCH_SIZE;
+        assertThat(statements).isLessThanOrEqualTo(2 * blocks + 5);
+    }
+}
@@ -0,0 +1,137 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.hszadkowski.iwa_backend.services.interfaces.AppointmentReminderService;
+import com.hszadkowski.iwa_backend.services.interfaces.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the daily reminder job against a real PostgreSQL server (embedded, no Docker needed) with the
+ * schema from db/create_tables.sql, so the claim insert goes through the same column types and
+ * unique key as in production. A repeated run must neither claim nor send the reminder again.
+ */
+@SpringBootTest
+@DirtiesContext
+class ReminderClaimPostgresTests {
+
+    private static final int APPOINTMENT_ID = 1;
+    private static final String USER_EMAIL = "erin@acme.com";
+
+    // Stopped by its own shutdown hook; the context that uses it is closed after this class
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private AppointmentReminderService appointmentReminderService;
+
+    @Autowired
+    private RecordingEmailService emailService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void usePostgres(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        new JdbcTemplate(postgres.getPostgresDatabase())
+                .execute(Files.readString(Path.of("..", "db", "create_tables.sql")));
+
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        // As in the docker profile: the script's tables, completed by Hibernate's schema update
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.sql.init.mode", () -> "never");
+    }
+
+    // Once Hibernate has added the columns the script lacks
+    @BeforeEach
+    void seedAppointmentForTomorrow() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        jdbcTemplate.update("INSERT INTO appointment_statuses (name) VALUES "
+                + "('PENDING'), ('CONFIRMED'), ('COMPLETED'), ('CANCELLED')");
+        jdbcTemplate.update("INSERT INTO app_users (name, surname, email, password_hash, role, enabled) VALUES "
+                + "('Alice', 'Admin', 'alice@acme.com', 'n/a', 'ROLE_ADMIN', true), "
+                + "('Erin', 'Example', ?, 'n/a', 'ROLE_USER', true)", USER_EMAIL);
+        jdbcTemplate.update("INSERT INTO services (name, duration_min, price) VALUES ('Basic Makeup', 60, 50.00)");
+        jdbcTemplate.update("INSERT INTO availability_slots (slot_id, app_user_id, service_id, start_time, end_time, is_booked) "
+                + "VALUES (1, 1, 1, ?, ?, true)", tomorrow.atTime(9, 0), tomorrow.atTime(10, 0));
+        jdbcTemplate.update("INSERT INTO appointments (appointment_id, app_user_id, service_id, status_id, location, scheduled_at, slot_id) "
+                + "VALUES (?, 2, 1, 2, 'Studio', ?, 1)", APPOINTMENT_ID, tomorrow);
+    }
+
+    @Test
+    void reminderIsClaimedAndSentOncePerDay() {
+        appointmentReminderService.sendDailyReminders();
+
+        assertThat(emailService.recipients).containsExactly(USER_EMAIL);
+        assertThat(jdbcTemplate.queryForList("SELECT type FROM notifications WHERE appointment_id = ?",
+                String.class, APPOINTMENT_ID)).containsExactly("REMINDER");
+        assertThat(reminders("failed")).isZero();
+
+        appointmentReminderService.sendDailyReminders();
+
+        assertThat(emailService.recipients).hasSize(1);
+        // The unique key is what stops two overlapping runs from both claiming it
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO notifications "
+                        + "(notification_id, app_user_id, appointment_id, type, message, sent_at) "
+                        + "VALUES (nextval('notifications_seq'), 1, ?, 'REMINDER', 'again', ?)",
+                APPOINTMENT_ID, LocalDate.now()))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("uk_notifications_appointment_type_sent_at");
+    }
+
+    private double reminders(String result) {
+        return meterRegistry.get("appointment.reminders").tag("result", result).counter().count();
+    }
+
+    @TestConfiguration
+    static class RecordingEmailConfig {
+
+        @Bean
+        @Primary
+        RecordingEmailService recordingEmailService() {
+            return new RecordingEmailService();
+        }
+    }
+
+    static class RecordingEmailService implements EmailService {
+
+        final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void sendVerificationEmail(String to, String subject, String text) {
+            recipients.add(to);
+        }
+
+        @Override
+        public void sendPasswordResetEmail(String to, String subject, String text) {
+            recipients.add(to);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hszadkowski.iwa_backend.services;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the dispatcher against an in-process SMTP server: a burst of mail must go out over one
+ * authenticated connection, and a connection the server dropped must be replaced on the next send.
+ */
+class SmtpMailDispatcherTests {
+
+    private static final String USERNAME = "support@acme.com";
+    private static final String PASSWORD = "secret";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser(USERNAME, PASSWORD));
+
+    private SimpleMeterRegistry meterRegistry;
+    private JavaMailSenderImpl mailSender;
+    private SmtpMailDispatcher dispatcher;
+
+    @BeforeEach
+    void startDispatcher() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setUsername(USERNAME);
+        mailSender.setPassword(PASSWORD);
+        Properties props = mailSender.getJavaMailProperties();
+        props.put("mail.transport.protocol", "smtp");
+        props.put("mail.smtp.auth", "true");
+
+        meterRegistry = new SimpleMeterRegistry();
+        OutboundCallLimiter limiter = new OutboundCallLimiter(1, 1, 1, 10_000, meterRegistry);
+        dispatcher = new SmtpMailDispatcher(mailSender, limiter, meterRegistry, 1, 20, 60_000, 100);
+    }
+
+    @AfterEach
+    void stopDispatcher() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void burstOfMailSharesOneConnection() throws Exception {
+        awaitAll(dispatcher.submit(messages(10)));
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(10);
+        assertThat(connectionsOpened()).isEqualTo(1);
+        assertThat(meterRegistry.get("mail.messages").tag("result", "sent").counter().count()).isEqualTo(10);
+    }
+
+    @Test
+    void droppedConnectionIsReplacedOnTheNextSend() throws Exception {
+        awaitAll(dispatcher.submit(messages(1)));
+
+        // Restarting the server drops the connection the worker is holding on to
+        greenMail.reset();
+        greenMail.setUser(USERNAME, PASSWORD);
+        awaitAll(dispatcher.submit(messages(2)));
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(connectionsOpened()).isEqualTo(2);
+        assertThat(meterRegistry.get("mail.messages").tag("result", "failed").counter().count()).isZero();
+    }
+
+    private MimeMessage[] messages(int count) throws MessagingException {
+        MimeMessage[] messages = new MimeMessage[count];
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, false);
+            helper.setFrom(USERNAME);
+            helper.setTo("bob@acme.com");
+            helper.setSubject("Reminder " + i);
+            helper.setText("See you soon");
+            messages[i] = message;
+        }
+        return messages;
+    }
+
+    private void awaitAll(List<CompletableFuture<Void>> results) throws Exception {
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+    }
+
+    private double connectionsOpened() {
+        return meterRegistry.get("mail.smtp.connections.opened").counter().count();
+    }
+}